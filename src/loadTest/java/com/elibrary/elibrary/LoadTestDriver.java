@@ -0,0 +1,187 @@
+package com.elibrary.elibrary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный тест полного конвейера: парсинг, расчёт метрик по годам и запись отчёта.
+ * Генерирует корпус {@link SyntheticCorpusGenerator} (или использует уже созданный), обрабатывает его
+ * пачками, как при выборе папки кафедры в интерфейсе, и выводит пропускную способность,
+ * перцентили задержек и пиковый объём резидентной памяти процесса.
+ * <p>
+ * Аргументы: {@code --dir <путь>} {@code --files <N>} {@code --batch <N>} {@code --seed <N>}
+ * {@code --charsets utf-8,windows-1251} {@code --min-throughput <файлов/с>} {@code --max-p99-ms <мс>}.
+ * При нарушении порогов процесс завершается с кодом 1, что позволяет использовать тест как регрессионную проверку.
+ */
+public class LoadTestDriver {
+
+    /**
+     * Запускает нагрузочный тест.
+     *
+     * @param args Аргументы командной строки
+     * @throws IOException Если не удалось создать или прочитать корпус
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        Path directory = Path.of(options.getOrDefault("dir", "build/load-test/corpus"));
+        int files = Integer.parseInt(options.getOrDefault("files", "10000"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        List<Path> corpus = prepareCorpus(directory, files, seed, options.getOrDefault("charsets", "utf-8"));
+        long corpusBytes = 0;
+        for (Path path : corpus) {
+            corpusBytes += Files.size(path);
+        }
+
+        ELibraryParser parser = new ELibraryParser();
+        YearHistogramAggregator aggregator = new YearHistogramAggregator();
+        ELibraryFileWriter writer = new ELibraryFileWriter();
+        long[] fileLatencies = new long[corpus.size()];
+        long[] batchLatencies = new long[(corpus.size() + batchSize - 1) / batchSize];
+        int parsed = 0;
+        int failed = 0;
+
+        long start = System.nanoTime();
+        for (int from = 0, batch = 0; from < corpus.size(); from += batchSize, batch++) {
+            long batchStart = System.nanoTime();
+            List<String> paths = new ArrayList<>();
+            for (Path path : corpus.subList(from, Math.min(from + batchSize, corpus.size()))) {
+                paths.add(path.toString());
+            }
+            ArticleColumnStore store = new ArticleColumnStore();
+            ELibraryParseResult result = parser.parse(paths, store);
+            aggregator.byDepartment(store);
+            try {
+                writer.write(result.authors(), OutputStream.nullOutputStream());
+            } catch (IOException e) {
+                failed += result.authors().size();
+            }
+            for (ParseOutcome outcome : result.outcomes()) {
+                fileLatencies[parsed++] = outcome.elapsedMillis();
+                if (outcome.status() == ParseOutcome.Status.FAILED) failed++;
+            }
+            batchLatencies[batch] = (System.nanoTime() - batchStart) / 1_000_000;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        double throughput = corpus.size() / seconds;
+        long p99 = percentile(fileLatencies, 99);
+        System.out.printf("Files: %d (%.1f MB), failed: %d, batches of %d%n",
+                corpus.size(), corpusBytes / 1e6, failed, batchSize);
+        System.out.printf("Total: %.2f s, throughput: %.1f files/s, %.2f MB/s%n",
+                seconds, throughput, corpusBytes / 1e6 / seconds);
+        System.out.printf("File parse latency, ms: p50 %d, p95 %d, p99 %d, max %d%n",
+                percentile(fileLatencies, 50), percentile(fileLatencies, 95), p99, percentile(fileLatencies, 100));
+        System.out.printf("Batch latency, ms: p50 %d, p95 %d, p99 %d, max %d%n",
+                percentile(batchLatencies, 50), percentile(batchLatencies, 95), percentile(batchLatencies, 99),
+                percentile(batchLatencies, 100));
+        System.out.println("Peak RSS: " + peakRss());
+
+        boolean passed = failed == 0;
+        if (options.containsKey("min-throughput")
+                && throughput < Double.parseDouble(options.get("min-throughput"))) {
+            System.out.println("FAIL: throughput is below " + options.get("min-throughput") + " files/s");
+            passed = false;
+        }
+        if (options.containsKey("max-p99-ms") && p99 > Long.parseLong(options.get("max-p99-ms"))) {
+            System.out.println("FAIL: p99 file latency is above " + options.get("max-p99-ms") + " ms");
+            passed = false;
+        }
+        if (failed > 0) {
+            System.out.println("FAIL: " + failed + " files were not processed");
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Возвращает файлы корпуса, генерируя его, если в директории меньше нужного количества страниц.
+     *
+     * @param directory Директория корпуса
+     * @param files     Количество страниц
+     * @param seed      Зерно генератора
+     * @param charsets  Кодировки страниц через запятую
+     * @return Пути к страницам корпуса
+     * @throws IOException Если не удалось создать или прочитать корпус
+     */
+    private static List<Path> prepareCorpus(Path directory, int files, long seed, String charsets)
+            throws IOException {
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> stream = Files.list(directory)) {
+                List<Path> existing = stream.filter(path -> path.getFileName().toString().endsWith(".html"))
+                        .sorted().toList();
+                if (existing.size() >= files) {
+                    return existing.subList(0, files);
+                }
+            }
+        }
+        SyntheticCorpusGenerator generator = new SyntheticCorpusGenerator(seed);
+        List<Charset> charsetList = new ArrayList<>();
+        for (String name : charsets.split(",")) {
+            charsetList.add(name.isBlank() ? StandardCharsets.UTF_8 : Charset.forName(name.trim()));
+        }
+        generator.setCharsets(charsetList);
+        System.out.println("Generating " + files + " pages in " + directory.toAbsolutePath());
+        return generator.generate(directory, files);
+    }
+
+    /**
+     * Разбирает аргументы вида {@code --ключ значение}.
+     *
+     * @param args Аргументы командной строки
+     * @return Значения аргументов по ключам без префикса
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * Вычисляет перцентиль методом ближайшего ранга.
+     *
+     * @param values  Значения
+     * @param percent Перцентиль от 0 до 100
+     * @return Значение перцентиля или 0 для пустого массива
+     */
+    private static long percentile(long[] values, int percent) {
+        if (values.length == 0) return 0;
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Возвращает пиковый объём резидентной памяти процесса (VmHWM из /proc/self/status).
+     *
+     * @return Пиковый объём памяти или "n/a", если он недоступен
+     */
+    private static String peakRss() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    return line.substring("VmHWM:".length()).trim();
+                }
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            return "n/a";
+        }
+        return "n/a";
+    }
+}
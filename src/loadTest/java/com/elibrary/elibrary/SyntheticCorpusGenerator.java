@@ -0,0 +1,310 @@
+package com.elibrary.elibrary;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических страниц списка публикаций в формате elibrary.ru.
+ * Страницы повторяют разметку сохранённых страниц из Examples/InputFiles и используются
+ * для нагрузочного тестирования ({@link LoadTestDriver}).
+ * <p>
+ * Количество публикаций автора равномерно распределено между {@link #setPublications(int, int)},
+ * число цитирований статьи подчиняется закону Ципфа, а совместные авторы с вероятностью
+ * {@link #setCoAuthorOverlap(double)} выбираются из общего для всего корпуса пула.
+ * Каждая страница определяется зерном генератора и своим номером, поэтому корпус воспроизводим.
+ * Как и страница, сохранённая браузером, она начинается с комментария {@code saved from url} с адресом страницы,
+ * в котором authorid равен {@link #FIRST_AUTHOR_ID} плюс номер страницы.
+ */
+public class SyntheticCorpusGenerator {
+    /**
+     * Идентификатор автора первой страницы корпуса
+     */
+    static final long FIRST_AUTHOR_ID = 100_000;
+    private static final String[] SURNAMES = {"Иванов", "Петров", "Сидоров", "Кузнецов", "Смирнов", "Попов",
+            "Соколов", "Лебедев", "Козлов", "Новиков", "Морозов", "Волков", "Алексеев", "Павлов", "Семенов",
+            "Голубев", "Виноградов", "Богданов", "Воробьев", "Федоров", "Михайлов", "Беляев", "Тарасов", "Белов"};
+    private static final String[] FIRST_NAMES = {"Александр", "Алексей", "Андрей", "Виктор", "Дмитрий", "Евгений",
+            "Игорь", "Михаил", "Николай", "Олег", "Павел", "Сергей", "Юрий", "Владимир", "Константин", "Роман"};
+    private static final String[] PATRONYMICS = {"Александрович", "Алексеевич", "Андреевич", "Викторович",
+            "Дмитриевич", "Евгеньевич", "Игоревич", "Михайлович", "Николаевич", "Олегович", "Сергеевич",
+            "Юрьевич", "Владимирович", "Витальевич"};
+    private static final String[] PLACES_OF_WORK = {
+            "Сибирский государственный университет науки и технологий им. акад. М.Ф. Решетнева (Красноярск)",
+            "Сибирский федеральный университет (Красноярск)",
+            "Институт вычислительного моделирования СО РАН (Красноярск)",
+            "Красноярский государственный аграрный университет (Красноярск)",
+            "Новосибирский государственный технический университет (Новосибирск)",
+            "Томский политехнический университет (Томск)"};
+    private static final String[] WORDS = {"анализ", "моделирование", "развитие", "управление", "система",
+            "метод", "оценка", "проблемы", "стратегия", "предприятия", "энергетики", "экономики", "технологии",
+            "исследование", "оптимизация", "устойчивости", "региона", "процессов", "эффективности", "данных",
+            "инновационной", "деятельности", "космической", "отрасли", "рынка", "качества", "структуры"};
+    private static final String[] JOURNALS = {"Актуальные проблемы авиации и космонавтики",
+            "Вестник Сибирского государственного аэрокосмического университета",
+            "Экономика и предпринимательство", "Решетневские чтения", "Журнал Сибирского федерального университета",
+            "Вопросы экономики", "Инновации", "Менеджмент в России и за рубежом"};
+    private static final String[] CONFERENCES = {"Научный поиск в современном мире",
+            "Молодежь и наука", "Проспект Свободный", "Современные проблемы экономики и управления"};
+
+    private final long seed;
+    private int minPublications = 5;
+    private int maxPublications = 150;
+    private double zipfExponent = 1.2;
+    private int maxCitations = 500;
+    private double coAuthorOverlap = 0.7;
+    private int coAuthorPoolSize = 2000;
+    private List<Charset> charsets = List.of(StandardCharsets.UTF_8);
+    private double[] citationDistribution;
+    private String[] coAuthorPool;
+
+    /**
+     * Создаёт генератор с заданным зерном.
+     *
+     * @param seed Зерно генератора случайных чисел
+     */
+    public SyntheticCorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Задаёт диапазон количества публикаций на одного автора.
+     *
+     * @param min Минимальное количество публикаций
+     * @param max Максимальное количество публикаций
+     */
+    public void setPublications(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("Invalid publication range: " + min + ".." + max);
+        }
+        this.minPublications = min;
+        this.maxPublications = max;
+    }
+
+    /**
+     * Задаёт распределение цитирований: P(k) пропорционально 1 / (k + 1)^exponent, k от 0 до maxCitations.
+     *
+     * @param exponent     Показатель закона Ципфа
+     * @param maxCitations Максимальное число цитирований статьи
+     */
+    public void setCitations(double exponent, int maxCitations) {
+        if (exponent <= 0 || maxCitations < 0) {
+            throw new IllegalArgumentException("Invalid citation distribution: " + exponent + ", " + maxCitations);
+        }
+        this.zipfExponent = exponent;
+        this.maxCitations = maxCitations;
+        this.citationDistribution = null;
+    }
+
+    /**
+     * Задаёт долю совместных авторов, выбираемых из общего пула корпуса.
+     * Остальные совместные авторы генерируются заново для каждой статьи.
+     *
+     * @param overlap  Доля от 0 до 1
+     * @param poolSize Размер общего пула
+     */
+    public void setCoAuthorOverlap(double overlap, int poolSize) {
+        if (overlap < 0 || overlap > 1 || poolSize < 1) {
+            throw new IllegalArgumentException("Invalid co-author overlap: " + overlap + ", " + poolSize);
+        }
+        this.coAuthorOverlap = overlap;
+        this.coAuthorPoolSize = poolSize;
+        this.coAuthorPool = null;
+    }
+
+    /**
+     * Задаёт доли совместных авторов из общего пула, сохраняя размер пула.
+     *
+     * @param overlap Доля от 0 до 1
+     */
+    public void setCoAuthorOverlap(double overlap) {
+        setCoAuthorOverlap(overlap, coAuthorPoolSize);
+    }
+
+    /**
+     * Задаёт кодировки страниц. Кодировки назначаются страницам по кругу, каждая страница объявляет
+     * свою кодировку в теге meta.
+     *
+     * @param charsets Кодировки страниц
+     */
+    public void setCharsets(List<Charset> charsets) {
+        if (charsets.isEmpty()) {
+            throw new IllegalArgumentException("At least one charset is required");
+        }
+        this.charsets = List.copyOf(charsets);
+    }
+
+    /**
+     * Генерирует корпус страниц в директории.
+     *
+     * @param directory Директория для файлов, создаётся при необходимости
+     * @param count     Количество страниц
+     * @return Пути к созданным файлам в порядке номеров
+     * @throws IOException Если не удалось записать файл
+     */
+    public List<Path> generate(Path directory, int count) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path path = directory.resolve(String.format("author_%06d.html", i));
+            Files.write(path, generatePage(i).getBytes(charset(i)));
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    /**
+     * Возвращает кодировку страницы с заданным номером.
+     *
+     * @param index Номер страницы
+     * @return Кодировка страницы
+     */
+    public Charset charset(int index) {
+        return charsets.get(index % charsets.size());
+    }
+
+    /**
+     * Генерирует одну страницу.
+     *
+     * @param index Номер страницы
+     * @return HTML страницы
+     */
+    public String generatePage(int index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        String surname = pick(random, SURNAMES);
+        String firstName = pick(random, FIRST_NAMES);
+        String patronymic = pick(random, PATRONYMICS);
+        String fullName = (surname + " " + firstName + " " + patronymic).toUpperCase();
+        String shortName = surname + " " + firstName.charAt(0) + "." + patronymic.charAt(0) + ".";
+        int publications = random.nextInt(minPublications, maxPublications + 1);
+
+        StringBuilder html = new StringBuilder(1024 + publications * 600);
+        String url = "https://www.elibrary.ru/author_items_print.asp?authorid=" + (FIRST_AUTHOR_ID + index);
+        html.append("<!-- saved from url=(").append(String.format("%04d", url.length())).append(')').append(url)
+                .append(" -->\n");
+        html.append("<html><head>\n<meta charset=\"").append(charset(index).name()).append("\">\n")
+                .append("<title>SCIENCE INDEX - ").append(surname).append(' ').append(firstName).append(' ')
+                .append(patronymic).append(" - Список публикаций</title>\n</head>\n")
+                .append("<body bgcolor=\"#ffffff\">\n<center>\n<font color=\"#000000\">\n")
+                .append("<b><span style=\"font-size: 10pt;\">").append(fullName).append("</span></b>\n")
+                .append("<br><i>").append(pick(random, PLACES_OF_WORK)).append("</i></font>\n<br>\n\n")
+                .append("<img src=\"/pic/1pix.gif\" vspace=\"8\"><br>\n\n")
+                .append("<table width=\"580\" cellspacing=\"0\" cellpadding=\"0\" border=\"0\">\n")
+                .append("<tbody><tr align=\"center\" valign=\"bottom\">\n")
+                .append("<td width=\"30\">№</td><td width=\"550\" colspan=\"2\" align=\"right\">Публикация")
+                .append("<img src=\"/pic/1pix.gif\" hspace=\"100\">Цитирований</td></tr>\n")
+                .append("<tr><td colspan=\"3\" valign=\"top\"><hr width=\"100%\"></td></tr>\n")
+                .append("</tbody></table>\n<br>\n")
+                .append("<table width=\"580\" cellspacing=\"0\" cellpadding=\"3\" border=\"0\">\n<tbody>");
+        for (int i = 1; i <= publications; i++) {
+            html.append("\n<tr valign=\"middle\">\n<td align=\"center\" valign=\"top\" width=\"30\">").append(i)
+                    .append("</td>\n<td align=\"left\" valign=\"top\" width=\"520\">\n")
+                    .append("<b><span style=\"line-height:1.0;\">").append(title(random)).append("</span></b><br>")
+                    .append("<i>").append(jointAuthors(random, shortName)).append("</i><br>")
+                    .append(venue(random))
+                    .append("\n</td><td align=\"center\" valign=\"top\" width=\"30\">").append(citations(random))
+                    .append("</td></tr>\n");
+        }
+        html.append("\n</tbody></table>\n\n</center></body></html>\n");
+        return html.toString();
+    }
+
+    private String title(SplittableRandom random) {
+        int length = random.nextInt(3, 10);
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) title.append(' ');
+            title.append(pick(random, WORDS));
+        }
+        return title.toString().toUpperCase();
+    }
+
+    private String jointAuthors(SplittableRandom random, String author) {
+        int count = random.nextInt(0, 5);
+        List<String> names = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            names.add(random.nextDouble() < coAuthorOverlap ? coAuthorPool()[random.nextInt(coAuthorPoolSize)]
+                    : randomShortName(random));
+        }
+        names.add(random.nextInt(count + 1), author);
+        return String.join(", ", names);
+    }
+
+    private String venue(SplittableRandom random) {
+        int year = random.nextInt(2000, 2025);
+        int firstPage = random.nextInt(1, 300);
+        String pages = "С. " + firstPage + "-" + (firstPage + random.nextInt(1, 15)) + ".";
+        if (random.nextInt(3) == 0) {
+            return " В сборнике: " + pick(random, CONFERENCES) + ".&nbsp;сборник материалов "
+                    + random.nextInt(1, 30) + "-й Международной научно-практической конференции. "
+                    + year + ".  " + pages;
+        }
+        return pick(random, JOURNALS) + ". " + year + ". Т. " + random.nextInt(1, 10) + ". №&nbsp;"
+                + random.nextInt(1, 13) + ".  " + pages;
+    }
+
+    private int citations(SplittableRandom random) {
+        double[] distribution = citationDistribution();
+        double value = random.nextDouble();
+        int low = 0;
+        int high = distribution.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (distribution[middle] < value) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает функцию распределения закона Ципфа, вычисляя её при первом обращении.
+     *
+     * @return Накопленные вероятности для 0..maxCitations цитирований
+     */
+    private double[] citationDistribution() {
+        if (citationDistribution == null) {
+            double[] distribution = new double[maxCitations + 1];
+            double sum = 0;
+            for (int k = 0; k <= maxCitations; k++) {
+                sum += 1 / Math.pow(k + 1, zipfExponent);
+                distribution[k] = sum;
+            }
+            for (int k = 0; k <= maxCitations; k++) {
+                distribution[k] /= sum;
+            }
+            citationDistribution = distribution;
+        }
+        return citationDistribution;
+    }
+
+    /**
+     * Возвращает общий пул совместных авторов, создавая его при первом обращении.
+     *
+     * @return Пул совместных авторов
+     */
+    private String[] coAuthorPool() {
+        if (coAuthorPool == null) {
+            SplittableRandom random = new SplittableRandom(seed);
+            String[] pool = new String[coAuthorPoolSize];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = randomShortName(random);
+            }
+            coAuthorPool = pool;
+        }
+        return coAuthorPool;
+    }
+
+    private static String randomShortName(SplittableRandom random) {
+        return pick(random, SURNAMES) + " " + pick(random, FIRST_NAMES).charAt(0) + "."
+                + pick(random, PATRONYMICS).charAt(0) + ".";
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,225 @@
+package com.elibrary.elibrary;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемый словарь организаций для {@link AffiliationNormalizer}.
+ * <p>
+ * Каждая строка словаря имеет вид {@code псевдоним = каноническое название}. Место работы сначала ищется
+ * среди свёрнутых ({@link AffiliationNormalizer#fold(String)}) псевдонимов и канонических названий.
+ * Если точного совпадения нет, оно сравнивается по сходству триграмм только с каноническими названиями словаря,
+ * а не с другими местами работы. Совпадением считается сходство не ниже {@link #SIMILARITY_THRESHOLD}
+ * при одинаковом количестве слов и совпадающем первом слове или городе, поэтому опечатка в названии находит
+ * организацию, а похожие названия разных организаций ("Томский" и "Омский" университеты, "государственный"
+ * и "государственный технический" университеты) не объединяются.
+ * <p>
+ * Словарь по умолчанию ({@link #defaults()}) читается из ресурса один раз и используется всеми парсерами.
+ */
+public final class AffiliationDictionary {
+    private static final Logger LOGGER = LogManager.getLogger(AffiliationDictionary.class);
+    /**
+     * Ресурс со словарём по умолчанию
+     */
+    private static final String DEFAULT_ALIASES = "/affiliation-aliases.txt";
+    /**
+     * Минимальный коэффициент Жаккара по триграммам для нечёткого совпадения
+     */
+    static final double SIMILARITY_THRESHOLD = 0.8;
+
+    /**
+     * Каноническое название словаря, с которым сравниваются места работы.
+     *
+     * @param name     Каноническое название
+     * @param leading  Первое слово свёрнутого названия
+     * @param words    Количество слов свёрнутого названия
+     * @param city     Город канонического названия или пустая строка
+     * @param trigrams Различные триграммы свёрнутого названия
+     */
+    private record Entry(String name, String leading, int words, String city, long[] trigrams) {
+    }
+
+    private final Map<String, String> aliases;
+    private final List<Entry> entries;
+    private final Map<Long, int[]> trigramIndex;
+
+    private AffiliationDictionary(Map<String, String> aliases) {
+        Map<String, String> folded = new HashMap<>();
+        Map<String, Entry> canonical = new LinkedHashMap<>();
+        aliases.forEach((alias, name) -> {
+            folded.put(AffiliationNormalizer.fold(alias), name);
+            String key = AffiliationNormalizer.fold(name);
+            folded.putIfAbsent(key, name);
+            if (!key.isEmpty()) {
+                canonical.putIfAbsent(key, new Entry(name, leadingWord(key), wordCount(key),
+                        AffiliationNormalizer.city(name), trigrams(key)));
+            }
+        });
+        this.aliases = Map.copyOf(folded);
+        this.entries = List.copyOf(canonical.values());
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            for (long trigram : entries.get(i).trigrams()) {
+                postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Long, int[]> index = new HashMap<>(postings.size() * 2);
+        postings.forEach((trigram, list) -> index.put(trigram, list.stream().mapToInt(Integer::intValue).toArray()));
+        this.trigramIndex = index;
+    }
+
+    /**
+     * Возвращает словарь по умолчанию из ресурса {@code affiliation-aliases.txt}. Ресурс читается один раз.
+     *
+     * @return Общий словарь
+     */
+    public static AffiliationDictionary defaults() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static final class DefaultHolder {
+        private static final AffiliationDictionary INSTANCE = loadDefaults();
+
+        private static AffiliationDictionary loadDefaults() {
+            try (InputStream in = AffiliationDictionary.class.getResourceAsStream(DEFAULT_ALIASES)) {
+                if (in != null) {
+                    return load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                LOGGER.error("Could not read the affiliation aliases: " + DEFAULT_ALIASES);
+            }
+            return of(Map.of());
+        }
+    }
+
+    /**
+     * Создаёт словарь из пар "псевдоним - каноническое название".
+     * Если два канонических названия сворачиваются одинаково, остаётся встреченное первым.
+     *
+     * @param aliases Псевдонимы в порядке добавления
+     * @return Новый словарь
+     */
+    public static AffiliationDictionary of(Map<String, String> aliases) {
+        return new AffiliationDictionary(aliases);
+    }
+
+    /**
+     * Читает словарь из файла в кодировке UTF-8.
+     * Каждая строка имеет вид {@code псевдоним = каноническое название}; пустые строки и строки,
+     * начинающиеся с {@code #}, пропускаются.
+     *
+     * @param file Файл словаря
+     * @return Новый словарь
+     * @throws IOException При ошибке чтения
+     */
+    public static AffiliationDictionary load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Читает словарь из потока символов в формате {@link #load(Path)}.
+     *
+     * @param reader Поток символов
+     * @return Новый словарь
+     * @throws IOException При ошибке чтения
+     */
+    public static AffiliationDictionary load(Reader reader) throws IOException {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int separator = line.indexOf('=');
+            if (separator < 0) {
+                LOGGER.warn("Skipping malformed alias line: " + line);
+                continue;
+            }
+            aliases.put(line.substring(0, separator).strip(), line.substring(separator + 1).strip());
+        }
+        return of(aliases);
+    }
+
+    /**
+     * Ищет организацию по псевдониму, затем по сходству триграмм среди канонических названий.
+     *
+     * @param folded Свёрнутое место работы
+     * @param city   Город места работы ({@link AffiliationNormalizer#city(String)}) или пустая строка
+     * @return Каноническое название или null, если организации нет в словаре
+     */
+    String lookup(String folded, String city) {
+        String alias = aliases.get(folded);
+        if (alias != null || entries.isEmpty()) return alias;
+        long[] trigrams = trigrams(folded);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (long trigram : trigrams) {
+            int[] postings = trigramIndex.get(trigram);
+            if (postings == null) continue;
+            for (int entry : postings) {
+                shared.merge(entry, 1, Integer::sum);
+            }
+        }
+        String leading = leadingWord(folded);
+        int words = wordCount(folded);
+        int best = -1;
+        double bestSimilarity = 0;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            Entry entry = entries.get(candidate.getKey());
+            if (entry.words() != words) continue;
+            boolean sameCity = !city.isEmpty() && city.equals(entry.city());
+            if (!sameCity && !leading.equals(entry.leading())) continue;
+            int common = candidate.getValue();
+            double similarity = (double) common / (trigrams.length + entry.trigrams().length - common);
+            if (similarity > bestSimilarity || similarity == bestSimilarity && candidate.getKey() < best) {
+                best = candidate.getKey();
+                bestSimilarity = similarity;
+            }
+        }
+        return best >= 0 && bestSimilarity >= SIMILARITY_THRESHOLD ? entries.get(best).name() : null;
+    }
+
+    private static int wordCount(String folded) {
+        return folded.split(" ").length;
+    }
+
+    private static String leadingWord(String folded) {
+        int space = folded.indexOf(' ');
+        return space < 0 ? folded : folded.substring(0, space);
+    }
+
+    /**
+     * Возвращает различные триграммы строки, дополненной пробелами по краям.
+     *
+     * @param folded Свёрнутая строка
+     * @return Триграммы, упакованные в long по 16 бит на символ
+     */
+    private static long[] trigrams(String folded) {
+        String padded = " " + folded + " ";
+        Set<Long> unique = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            unique.add((long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2));
+        }
+        long[] result = unique.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+}
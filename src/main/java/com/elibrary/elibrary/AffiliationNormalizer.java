@@ -0,0 +1,124 @@
+package com.elibrary.elibrary;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Приведение мест работы авторов к названию организации в пределах одного запуска разбора.
+ * <p>
+ * Строка места работы сначала сворачивается: отбрасывается город в конце ("(Красноярск)", ", г. Красноярск"),
+ * нижний регистр, Ё заменяется на Е, раскрываются сокращения (ун-т, гос., им. и т.п.), удаляются
+ * организационно-правовые формы (ФГБОУ ВО и т.п.) и знаки препинания.
+ * Свёрнутая строка ищется в общем неизменяемом словаре {@link AffiliationDictionary}: по псевдонимам и нечётко
+ * по каноническим названиям. Места работы, которых нет в словаре, группируются по свёрнутой строке, а названием
+ * группы становится первое встреченное написание. Поэтому нормализатор создаётся на каждый запуск разбора
+ * и вызывается в порядке входных файлов: название группы не зависит от того, какой поток разобрал файл первым.
+ * <p>
+ * Результаты кешируются в {@link ConcurrentHashMap} по исходной строке, поэтому повторная нормализация -
+ * поиск в хеш-таблице. Кеш живёт столько же, сколько запуск, словарь - весь процесс.
+ */
+public class AffiliationNormalizer {
+    private static final String[][] ABBREVIATIONS = {
+            {"ун-т", " университет "}, {"ин-т", " институт "}, {"гос\\.", " государственный "},
+            {"им\\.", " имени "}, {"акад\\.", " академика "}, {"техн\\.", " технический "},
+            {"нац\\.", " национальный "}, {"фед\\.", " федеральный "}, {"исслед\\.", " исследовательский "}};
+    private static final Pattern[] ABBREVIATION_PATTERNS = new Pattern[ABBREVIATIONS.length];
+    private static final Pattern TRAILING_CITY = Pattern.compile(
+            "(\\s*\\([^()]*\\)|\\s*,\\s*(г\\.\\s*)?[\\p{L}-]+)\\s*$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Set<String> LEGAL_FORMS = Set.of("фгбоу", "фгаоу", "фгоу", "гоу", "фгбун", "фгбу",
+            "фгуп", "ано", "во", "впо", "оу");
+
+    static {
+        for (int i = 0; i < ABBREVIATIONS.length; i++) {
+            ABBREVIATION_PATTERNS[i] = Pattern.compile("(?<![\\p{L}])" + ABBREVIATIONS[i][0]);
+        }
+    }
+
+    private final AffiliationDictionary dictionary;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+    /**
+     * Название для каждой свёрнутой строки, которой нет в словаре: первое встреченное написание
+     */
+    private final Map<String, String> displayNames = new ConcurrentHashMap<>();
+
+    /**
+     * Создаёт нормализатор со словарём по умолчанию ({@link AffiliationDictionary#defaults()}).
+     */
+    public AffiliationNormalizer() {
+        this(AffiliationDictionary.defaults());
+    }
+
+    /**
+     * Создаёт нормализатор с заданным словарём.
+     *
+     * @param dictionary Словарь организаций
+     */
+    public AffiliationNormalizer(AffiliationDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Возвращает название организации для места работы.
+     *
+     * @param placeOfWork Место работы в том виде, в котором оно указано на странице
+     * @return Каноническое название из словаря или первое встреченное написание организации; для null - null
+     */
+    public String normalize(String placeOfWork) {
+        if (placeOfWork == null) return null;
+        return cache.computeIfAbsent(placeOfWork, this::resolve);
+    }
+
+    /**
+     * Находит организацию в словаре, иначе в группе мест работы с той же свёрнутой строкой.
+     *
+     * @param placeOfWork Место работы
+     * @return Название организации
+     */
+    private String resolve(String placeOfWork) {
+        String display = WHITESPACE.matcher(placeOfWork.strip()).replaceAll(" ");
+        String folded = fold(placeOfWork);
+        if (folded.isEmpty()) return display;
+        String canonical = dictionary.lookup(folded, city(placeOfWork));
+        if (canonical != null) return canonical;
+        return displayNames.computeIfAbsent(folded, key -> display);
+    }
+
+    /**
+     * Возвращает город, указанный в конце места работы ("(Красноярск)", ", г. Красноярск").
+     *
+     * @param value Место работы
+     * @return Город в нижнем регистре или пустая строка
+     */
+    static String city(String value) {
+        Matcher matcher = TRAILING_CITY.matcher(value);
+        if (!matcher.find()) return "";
+        String city = matcher.group().toLowerCase(Locale.ROOT).replace('ё', 'е')
+                .replaceAll("[^\\p{L}-]+", " ").strip();
+        return city.startsWith("г ") ? city.substring(2) : city;
+    }
+
+    /**
+     * Сворачивает строку места работы для сравнения.
+     *
+     * @param value Место работы
+     * @return Свёрнутая строка без города: слова в нижнем регистре через один пробел
+     */
+    static String fold(String value) {
+        String lower = TRAILING_CITY.matcher(value).replaceFirst("").toLowerCase(Locale.ROOT).replace('ё', 'е');
+        for (int i = 0; i < ABBREVIATION_PATTERNS.length; i++) {
+            lower = ABBREVIATION_PATTERNS[i].matcher(lower).replaceAll(ABBREVIATIONS[i][1]);
+        }
+        StringBuilder folded = new StringBuilder(lower.length());
+        for (String word : lower.split("[^\\p{L}\\p{Nd}]+")) {
+            if (word.isEmpty() || LEGAL_FORMS.contains(word)) continue;
+            if (folded.length() > 0) folded.append(' ');
+            folded.append(word);
+        }
+        return folded.toString();
+    }
+}
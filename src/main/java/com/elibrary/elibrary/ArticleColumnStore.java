@@ -0,0 +1,423 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Класс ArticleColumnStore хранит статьи всех авторов по столбцам.
+ * Строковые столбцы (название, место публикации, журнал, совместные авторы) кодируются словарём,
+ * количество цитирований, год публикации и порядковый номер автора хранятся в массивах int,
+ * признак нулевого цитирования - в битовой карте.
+ * <p>
+ * Запросы работают с векторами выбранных строк: {@link #selectAll()} возвращает все строки,
+ * методы {@code filter...} сужают выбор, {@link #sortByCitations(int[], boolean)} упорядочивает его.
+ * Хранилище заполняется парсером через {@link ELibraryParser#parse(java.util.Collection, ArticleColumnStore)}.
+ */
+public class ArticleColumnStore {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final StringDictionary titles = new StringDictionary();
+    private final StringDictionary venues = new StringDictionary();
+    private final StringDictionary journals = new StringDictionary();
+    private final StringDictionary jointAuthors = new StringDictionary();
+    /**
+     * Том, номер выпуска и страницы разобранного места публикации
+     */
+    private final StringDictionary venueParts = new StringDictionary();
+    private final List<String> authorNames = new ArrayList<>();
+    private final List<String> authorPlacesOfWork = new ArrayList<>();
+    private final List<String> authorOrganizations = new ArrayList<>();
+
+    private int[] titleColumn = new int[INITIAL_CAPACITY];
+    private int[] venueColumn = new int[INITIAL_CAPACITY];
+    private int[] journalColumn = new int[INITIAL_CAPACITY];
+    private int[] yearColumn = new int[INITIAL_CAPACITY];
+    private int[] volumeColumn = new int[INITIAL_CAPACITY];
+    private int[] issueColumn = new int[INITIAL_CAPACITY];
+    private int[] pagesColumn = new int[INITIAL_CAPACITY];
+    private int[] jointAuthorsColumn = new int[INITIAL_CAPACITY];
+    private int[] citationsColumn = new int[INITIAL_CAPACITY];
+    private int[] authorColumn = new int[INITIAL_CAPACITY];
+    private final BitSet zeroCitations = new BitSet();
+    private int size;
+
+    /**
+     * Добавляет автора и все его статьи. Списки статей выравниваются по самому короткому.
+     *
+     * @param author       Автор
+     * @param titles       Названия статей
+     * @param jointAuthors Совместные авторы статей
+     * @param venues       Места публикации статей
+     * @param parsedVenues Разобранные места публикации статей
+     * @param citations    Количество цитирований статей
+     * @return Порядковый номер автора в хранилище
+     */
+    synchronized int addAuthor(Author author, List<String> titles, List<String> jointAuthors,
+                               List<String> venues, List<PublicationVenue> parsedVenues, List<String> citations) {
+        int ordinal = authorNames.size();
+        authorNames.add(author.getName());
+        authorPlacesOfWork.add(author.getPlaceOfWork());
+        authorOrganizations.add(author.getOrganization());
+        int count = Math.min(Math.min(titles.size(), jointAuthors.size()), Math.min(venues.size(), citations.size()));
+        ensureCapacity(size + count);
+        for (int i = 0; i < count; i++) {
+            int citation = Integer.parseInt(citations.get(i));
+            PublicationVenue venue = parsedVenues.get(i);
+            titleColumn[size] = this.titles.encode(titles.get(i));
+            venueColumn[size] = this.venues.encode(venues.get(i));
+            journalColumn[size] = journals.encode(venue.journal());
+            yearColumn[size] = venue.year();
+            volumeColumn[size] = venueParts.encode(venue.volume());
+            issueColumn[size] = venueParts.encode(venue.issue());
+            pagesColumn[size] = venueParts.encode(venue.pages());
+            jointAuthorsColumn[size] = this.jointAuthors.encode(jointAuthors.get(i));
+            citationsColumn[size] = citation;
+            authorColumn[size] = ordinal;
+            if (citation == 0) zeroCitations.set(size);
+            size++;
+        }
+        return ordinal;
+    }
+
+    /**
+     * Увеличивает массивы столбцов так, чтобы в них поместилось заданное количество строк.
+     *
+     * @param capacity Необходимое количество строк
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= titleColumn.length) return;
+        int newCapacity = Math.max(capacity, titleColumn.length * 2);
+        titleColumn = Arrays.copyOf(titleColumn, newCapacity);
+        venueColumn = Arrays.copyOf(venueColumn, newCapacity);
+        journalColumn = Arrays.copyOf(journalColumn, newCapacity);
+        yearColumn = Arrays.copyOf(yearColumn, newCapacity);
+        volumeColumn = Arrays.copyOf(volumeColumn, newCapacity);
+        issueColumn = Arrays.copyOf(issueColumn, newCapacity);
+        pagesColumn = Arrays.copyOf(pagesColumn, newCapacity);
+        jointAuthorsColumn = Arrays.copyOf(jointAuthorsColumn, newCapacity);
+        citationsColumn = Arrays.copyOf(citationsColumn, newCapacity);
+        authorColumn = Arrays.copyOf(authorColumn, newCapacity);
+    }
+
+    /**
+     * Возвращает количество статей в хранилище.
+     *
+     * @return Количество статей
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество авторов в хранилище.
+     *
+     * @return Количество авторов
+     */
+    public synchronized int authorCount() {
+        return authorNames.size();
+    }
+
+    /**
+     * Возвращает вектор всех строк хранилища.
+     *
+     * @return Номера всех строк по возрастанию
+     */
+    public synchronized int[] selectAll() {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    /**
+     * Оставляет строки с нулевым цитированием.
+     *
+     * @param rows Вектор строк
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterZeroCitations(int[] rows) {
+        int[] result = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            if (zeroCitations.get(row)) result[count++] = row;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Оставляет строки, у которых количество цитирований не меньше заданного.
+     *
+     * @param rows         Вектор строк
+     * @param minCitations Минимальное количество цитирований
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterCitationsAtLeast(int[] rows, int minCitations) {
+        return filterColumn(rows, citationsColumn, minCitations, true);
+    }
+
+    /**
+     * Оставляет строки с заданным местом публикации.
+     *
+     * @param rows  Вектор строк
+     * @param venue Место публикации
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterVenue(int[] rows, String venue) {
+        int code = venues.lookup(venue);
+        return code == -1 ? new int[0] : filterColumn(rows, venueColumn, code, false);
+    }
+
+    /**
+     * Оставляет строки с заданным журналом, см. {@link PublicationVenue#journal()}.
+     *
+     * @param rows    Вектор строк
+     * @param journal Журнал
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterJournal(int[] rows, String journal) {
+        int code = journals.lookup(journal);
+        return code == -1 ? new int[0] : filterColumn(rows, journalColumn, code, false);
+    }
+
+    /**
+     * Оставляет строки с заданным годом публикации.
+     *
+     * @param rows Вектор строк
+     * @param year Год публикации
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterYear(int[] rows, int year) {
+        return filterColumn(rows, yearColumn, year, false);
+    }
+
+    /**
+     * Оставляет строки с заданными совместными авторами.
+     *
+     * @param rows         Вектор строк
+     * @param jointAuthors Совместные авторы в том виде, в котором они указаны на странице
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterJointAuthors(int[] rows, String jointAuthors) {
+        int code = this.jointAuthors.lookup(jointAuthors);
+        return code == -1 ? new int[0] : filterColumn(rows, jointAuthorsColumn, code, false);
+    }
+
+    /**
+     * Оставляет строки заданного автора.
+     *
+     * @param rows          Вектор строк
+     * @param authorOrdinal Порядковый номер автора
+     * @return Новый вектор строк
+     */
+    public synchronized int[] filterAuthor(int[] rows, int authorOrdinal) {
+        return filterColumn(rows, authorColumn, authorOrdinal, false);
+    }
+
+    /**
+     * Оставляет строки, значение столбца в которых равно заданному (или не меньше него).
+     *
+     * @param rows    Вектор строк
+     * @param column  Столбец
+     * @param value   Значение
+     * @param atLeast true - сравнение "не меньше", false - сравнение на равенство
+     * @return Новый вектор строк
+     */
+    private int[] filterColumn(int[] rows, int[] column, int value, boolean atLeast) {
+        int[] result = new int[rows.length];
+        int count = 0;
+        if (atLeast) {
+            for (int row : rows) {
+                if (column[row] >= value) result[count++] = row;
+            }
+        } else {
+            for (int row : rows) {
+                if (column[row] == value) result[count++] = row;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Упорядочивает строки по количеству цитирований.
+     * При равном количестве цитирований сохраняется порядок номеров строк.
+     *
+     * @param rows       Вектор строк
+     * @param descending true - по убыванию, false - по возрастанию
+     * @return Новый упорядоченный вектор строк
+     */
+    public synchronized int[] sortByCitations(int[] rows, boolean descending) {
+        long[] keys = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int citations = citationsColumn[rows[i]];
+            long key = descending ? Integer.MAX_VALUE - citations : citations;
+            keys[i] = key << 32 | rows[i];
+        }
+        Arrays.sort(keys);
+        int[] result = new int[rows.length];
+        for (int i = 0; i < keys.length; i++) {
+            result[i] = (int) keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает название статьи.
+     *
+     * @param row Номер строки
+     * @return Название статьи
+     */
+    public synchronized String title(int row) {
+        return titles.decode(titleColumn[row]);
+    }
+
+    /**
+     * Возвращает место публикации статьи.
+     *
+     * @param row Номер строки
+     * @return Место публикации
+     */
+    public synchronized String venue(int row) {
+        return venues.decode(venueColumn[row]);
+    }
+
+    /**
+     * Возвращает журнал статьи, см. {@link PublicationVenue#journal()}.
+     *
+     * @param row Номер строки
+     * @return Журнал
+     */
+    public synchronized String journal(int row) {
+        return journals.decode(journalColumn[row]);
+    }
+
+    /**
+     * Возвращает год публикации статьи.
+     *
+     * @param row Номер строки
+     * @return Год публикации или 0, если год неизвестен
+     */
+    public synchronized int year(int row) {
+        return yearColumn[row];
+    }
+
+    /**
+     * Возвращает совместных авторов статьи.
+     *
+     * @param row Номер строки
+     * @return Совместные авторы
+     */
+    public synchronized String jointAuthors(int row) {
+        return jointAuthors.decode(jointAuthorsColumn[row]);
+    }
+
+    /**
+     * Возвращает количество цитирований статьи.
+     *
+     * @param row Номер строки
+     * @return Количество цитирований
+     */
+    public synchronized int citations(int row) {
+        return citationsColumn[row];
+    }
+
+    /**
+     * Возвращает порядковый номер автора статьи.
+     *
+     * @param row Номер строки
+     * @return Порядковый номер автора
+     */
+    public synchronized int authorOrdinal(int row) {
+        return authorColumn[row];
+    }
+
+    /**
+     * Возвращает имя автора по порядковому номеру.
+     *
+     * @param authorOrdinal Порядковый номер автора
+     * @return Имя автора
+     */
+    public synchronized String authorName(int authorOrdinal) {
+        return authorNames.get(authorOrdinal);
+    }
+
+    /**
+     * Возвращает место работы автора по порядковому номеру.
+     *
+     * @param authorOrdinal Порядковый номер автора
+     * @return Место работы автора
+     */
+    public synchronized String authorPlaceOfWork(int authorOrdinal) {
+        return authorPlacesOfWork.get(authorOrdinal);
+    }
+
+    /**
+     * Возвращает каноническое название организации автора по порядковому номеру.
+     *
+     * @param authorOrdinal Порядковый номер автора
+     * @return Организация автора ({@link Author#getOrganization()})
+     */
+    public synchronized String authorOrganization(int authorOrdinal) {
+        return authorOrganizations.get(authorOrdinal);
+    }
+
+    /**
+     * Копирует столбец года публикации для выбранных строк.
+     *
+     * @param rows Вектор строк
+     * @return Годы публикации в порядке строк
+     */
+    synchronized int[] years(int[] rows) {
+        return gather(rows, yearColumn);
+    }
+
+    /**
+     * Копирует столбец количества цитирований для выбранных строк.
+     *
+     * @param rows Вектор строк
+     * @return Количество цитирований в порядке строк
+     */
+    synchronized int[] citations(int[] rows) {
+        return gather(rows, citationsColumn);
+    }
+
+    /**
+     * Копирует столбец порядкового номера автора для выбранных строк.
+     *
+     * @param rows Вектор строк
+     * @return Порядковые номера авторов в порядке строк
+     */
+    synchronized int[] authorOrdinals(int[] rows) {
+        return gather(rows, authorColumn);
+    }
+
+    /**
+     * Копирует значения столбца для выбранных строк.
+     *
+     * @param rows   Вектор строк
+     * @param column Столбец
+     * @return Значения столбца в порядке строк
+     */
+    private int[] gather(int[] rows, int[] column) {
+        int[] result = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = column[rows[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Собирает объект статьи из столбцов: количество цитирований и разобранное место публикации
+     * берутся из хранилища, место публикации повторно не разбирается.
+     *
+     * @param row Номер строки
+     * @return Статья
+     */
+    public synchronized ArticleWithZeroCitations article(int row) {
+        PublicationVenue venue = new PublicationVenue(journal(row), year(row), venueParts.decode(volumeColumn[row]),
+                venueParts.decode(issueColumn[row]), venueParts.decode(pagesColumn[row]));
+        return new ArticleWithZeroCitations(title(row), jointAuthors(row), venue(row), venue, citations(row));
+    }
+}
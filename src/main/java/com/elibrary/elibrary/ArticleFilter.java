@@ -0,0 +1,177 @@
+package com.elibrary.elibrary;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Класс ArticleFilter определяет, какие статьи автора сохраняются в {@link Author#getArticles()}.
+ * Фильтр применяется при извлечении данных в {@link ELibraryParser}: объекты статей создаются
+ * только для выбранных строк таблицы, остальные строки учитываются лишь в показателях автора.
+ * Объекты фильтра неизменяемы.
+ */
+public final class ArticleFilter {
+
+    /**
+     * Вид фильтра.
+     */
+    private enum Kind {
+        ALL, ZERO_CITATIONS, CITATIONS_AT_LEAST, CITATIONS_AT_MOST, TOP_CITED
+    }
+
+    private static final ArticleFilter ALL = new ArticleFilter(Kind.ALL, 0);
+    private static final ArticleFilter ZERO_CITATIONS = new ArticleFilter(Kind.ZERO_CITATIONS, 0);
+
+    private final Kind kind;
+    private final int value;
+
+    private ArticleFilter(Kind kind, int value) {
+        this.kind = kind;
+        this.value = value;
+    }
+
+    /**
+     * Фильтр, сохраняющий все статьи.
+     *
+     * @return Фильтр
+     */
+    public static ArticleFilter all() {
+        return ALL;
+    }
+
+    /**
+     * Фильтр, сохраняющий только статьи с нулевым цитированием. Используется по умолчанию.
+     *
+     * @return Фильтр
+     */
+    public static ArticleFilter zeroCitations() {
+        return ZERO_CITATIONS;
+    }
+
+    /**
+     * Фильтр, сохраняющий статьи, процитированные не менее заданного количества раз.
+     *
+     * @param minCitations Минимальное количество цитирований
+     * @return Фильтр
+     */
+    public static ArticleFilter citationsAtLeast(int minCitations) {
+        return new ArticleFilter(Kind.CITATIONS_AT_LEAST, minCitations);
+    }
+
+    /**
+     * Фильтр, сохраняющий статьи, процитированные не более заданного количества раз.
+     *
+     * @param maxCitations Максимальное количество цитирований
+     * @return Фильтр
+     */
+    public static ArticleFilter citationsAtMost(int maxCitations) {
+        return new ArticleFilter(Kind.CITATIONS_AT_MOST, maxCitations);
+    }
+
+    /**
+     * Фильтр, сохраняющий заданное количество наиболее цитируемых статей в порядке убывания цитирований.
+     *
+     * @param count Количество статей
+     * @return Фильтр
+     */
+    public static ArticleFilter topCited(int count) {
+        if (count < 0) throw new IllegalArgumentException("Negative article count: " + count);
+        return new ArticleFilter(Kind.TOP_CITED, count);
+    }
+
+    /**
+     * Создаёт фильтр по текстовому описанию: {@code all}, {@code zero}, {@code min:N}, {@code max:N} или {@code top:N}.
+     *
+     * @param description Описание фильтра
+     * @return Фильтр
+     * @throws IllegalArgumentException Если описание не распознано
+     */
+    public static ArticleFilter parse(String description) {
+        String text = description.trim().toLowerCase(Locale.ROOT);
+        if (text.equals("all")) return all();
+        if (text.equals("zero")) return zeroCitations();
+        int index = text.indexOf(':');
+        if (index <= 0) throw new IllegalArgumentException("Unknown article filter: " + description);
+        int number;
+        try {
+            number = Integer.parseInt(text.substring(index + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown article filter: " + description);
+        }
+        return switch (text.substring(0, index)) {
+            case "min" -> citationsAtLeast(number);
+            case "max" -> citationsAtMost(number);
+            case "top" -> topCited(number);
+            default -> throw new IllegalArgumentException("Unknown article filter: " + description);
+        };
+    }
+
+    /**
+     * Выбирает строки таблицы, для которых нужно создать объекты статей.
+     *
+     * @param citations Количество цитирований каждой строки
+     * @return Номера выбранных строк в том порядке, в котором статьи попадут в отчёт
+     */
+    int[] select(int[] citations) {
+        if (kind == Kind.TOP_CITED) return selectTopCited(citations);
+        int[] rows = new int[citations.length];
+        int count = 0;
+        for (int i = 0; i < citations.length; i++) {
+            if (accepts(citations[i])) rows[count++] = i;
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Проверяет, проходит ли строка фильтр по количеству цитирований.
+     *
+     * @param citations Количество цитирований
+     * @return true, если строка проходит фильтр
+     */
+    private boolean accepts(int citations) {
+        return switch (kind) {
+            case ALL, TOP_CITED -> true;
+            case ZERO_CITATIONS -> citations == 0;
+            case CITATIONS_AT_LEAST -> citations >= value;
+            case CITATIONS_AT_MOST -> citations <= value;
+        };
+    }
+
+    /**
+     * Выбирает наиболее цитируемые строки. При равном количестве цитирований сохраняется порядок на странице.
+     *
+     * @param citations Количество цитирований каждой строки
+     * @return Номера выбранных строк по убыванию цитирований
+     */
+    private int[] selectTopCited(int[] citations) {
+        long[] keys = new long[citations.length];
+        for (int i = 0; i < citations.length; i++) {
+            keys[i] = (long) (Integer.MAX_VALUE - citations[i]) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[Math.min(value, keys.length)];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = (int) keys[i];
+        }
+        return rows;
+    }
+
+    /**
+     * Проверяет, сохраняет ли фильтр только статьи с нулевым цитированием.
+     *
+     * @return true для {@link #zeroCitations()}
+     */
+    public boolean isZeroCitationsOnly() {
+        return kind == Kind.ZERO_CITATIONS;
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case ALL -> "all";
+            case ZERO_CITATIONS -> "zero";
+            case CITATIONS_AT_LEAST -> "min:" + value;
+            case CITATIONS_AT_MOST -> "max:" + value;
+            case TOP_CITED -> "top:" + value;
+        };
+    }
+}
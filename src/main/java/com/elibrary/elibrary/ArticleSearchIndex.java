@@ -0,0 +1,313 @@
+package com.elibrary.elibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Полнотекстовый индекс статей авторов: названия, места публикации и совместные авторы.
+ * <p>
+ * Текст разбивается на термы {@link SearchTokenizer} (нижний регистр, лёгкий стемминг русских слов).
+ * Для каждого терма хранится список номеров статей, сжатый разностным кодированием переменной длины
+ * (varint): статьи нумеруются в порядке добавления, поэтому разности положительны и обычно занимают один байт.
+ * Индекс пополняется по мере поступления авторов ({@link #add(Author)}, {@link ELibraryParser#setSearchIndex})
+ * и сохраняется в файл рядом со снимком {@link AuthorSnapshot}. Все проиндексированные статьи хранятся в куче,
+ * в том числе статьи авторов, выгруженных из кучи {@link SpillingAuthorStore}.
+ * <p>
+ * Запрос находит статьи, содержащие все термы запроса. Списки пересекаются начиная с самого короткого,
+ * поэтому время ответа определяется самым редким термом. Методы индекса синхронизированы: искать можно
+ * во время пополнения из другого потока.
+ */
+public class ArticleSearchIndex {
+    private static final int MAGIC = 0x454C4931;
+    private static final int VERSION = 1;
+
+    private final StringDictionary authorNames = new StringDictionary();
+    private final List<Integer> articleAuthors = new ArrayList<>();
+    private final List<ArticleWithZeroCitations> articles = new ArrayList<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+
+    /**
+     * Найденная статья.
+     *
+     * @param author  ФИО автора, у которого найдена статья
+     * @param article Статья
+     */
+    public record Hit(String author, ArticleWithZeroCitations article) {
+    }
+
+    /**
+     * Добавляет в индекс все статьи автора ({@link Author#getArticles()}).
+     *
+     * @param author Автор
+     */
+    public synchronized void add(Author author) {
+        int authorCode = authorNames.encode(author.getName() == null ? "" : author.getName());
+        for (ArticleWithZeroCitations article : author.getArticles()) {
+            addArticle(authorCode, article);
+        }
+    }
+
+    private void addArticle(int authorCode, ArticleWithZeroCitations article) {
+        int doc = articles.size();
+        articles.add(article);
+        articleAuthors.add(authorCode);
+        for (String text : new String[]{article.title(), article.placeOfPublication(), article.jointAuthors()}) {
+            for (String term : SearchTokenizer.terms(text)) {
+                postings.computeIfAbsent(term, key -> new PostingList()).add(doc);
+            }
+        }
+    }
+
+    /**
+     * Ищет статьи, содержащие все слова запроса в названии, месте публикации или среди совместных авторов.
+     *
+     * @param query Запрос
+     * @param limit Максимальное количество результатов
+     * @return Найденные статьи в порядке добавления; для запроса без значимых слов - пустой список
+     */
+    public synchronized List<Hit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.terms(query));
+        if (terms.isEmpty() || limit <= 0) return List.of();
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) return List.of();
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.count));
+        int[] docs = lists.get(0).decode();
+        int size = docs.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = lists.get(i).retain(docs, size);
+        }
+        List<Hit> hits = new ArrayList<>(Math.min(size, limit));
+        for (int i = 0; i < size && hits.size() < limit; i++) {
+            hits.add(new Hit(authorNames.decode(articleAuthors.get(docs[i])), articles.get(docs[i])));
+        }
+        return hits;
+    }
+
+    /**
+     * Возвращает количество проиндексированных статей.
+     *
+     * @return Количество статей
+     */
+    public synchronized int size() {
+        return articles.size();
+    }
+
+    /**
+     * Записывает индекс в файл.
+     *
+     * @param file Файл индекса
+     * @throws IOException При ошибке записи
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    /**
+     * Записывает индекс в поток. Поток не закрывается.
+     *
+     * @param out Поток
+     * @throws IOException При ошибке записи
+     */
+    public synchronized void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(authorNames.size());
+        for (int i = 0; i < authorNames.size(); i++) {
+            AuthorSnapshot.writeString(data, authorNames.decode(i));
+        }
+        data.writeInt(articles.size());
+        for (int i = 0; i < articles.size(); i++) {
+            ArticleWithZeroCitations article = articles.get(i);
+            data.writeInt(articleAuthors.get(i));
+            AuthorSnapshot.writeString(data, article.title());
+            AuthorSnapshot.writeString(data, article.jointAuthors());
+            AuthorSnapshot.writeString(data, article.placeOfPublication());
+            data.writeInt(article.citations());
+        }
+        data.writeInt(postings.size());
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            PostingList list = entry.getValue();
+            AuthorSnapshot.writeString(data, entry.getKey());
+            data.writeInt(list.count);
+            data.writeInt(list.lastDoc);
+            data.writeInt(list.length);
+            data.write(list.bytes, 0, list.length);
+        }
+        data.flush();
+    }
+
+    /**
+     * Читает индекс из файла.
+     *
+     * @param file Файл индекса
+     * @return Индекс, который можно пополнять дальше
+     * @throws IOException При ошибке чтения или неверном формате файла
+     */
+    public static ArticleSearchIndex read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Читает индекс из потока. Поток не закрывается.
+     *
+     * @param in Поток
+     * @return Индекс, который можно пополнять дальше
+     * @throws IOException При ошибке чтения или неверном формате данных
+     */
+    public static ArticleSearchIndex read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an article search index");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported search index version: " + version);
+        }
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        int authorCount = AuthorSnapshot.readCount(data);
+        for (int i = 0; i < authorCount; i++) {
+            index.authorNames.encode(AuthorSnapshot.readString(data));
+        }
+        int articleCount = AuthorSnapshot.readCount(data);
+        for (int i = 0; i < articleCount; i++) {
+            int author = data.readInt();
+            if (author < 0 || author >= index.authorNames.size()) {
+                throw new IOException("Corrupted search index: author " + author + " out of range");
+            }
+            index.articleAuthors.add(author);
+            String title = AuthorSnapshot.readString(data);
+            String jointAuthors = AuthorSnapshot.readString(data);
+            String placeOfPublication = AuthorSnapshot.readString(data);
+            index.articles.add(new ArticleWithZeroCitations(title, jointAuthors, placeOfPublication,
+                    PublicationVenue.parse(placeOfPublication), data.readInt()));
+        }
+        int termCount = AuthorSnapshot.readCount(data);
+        for (int i = 0; i < termCount; i++) {
+            String term = AuthorSnapshot.readString(data);
+            PostingList list = new PostingList();
+            list.count = AuthorSnapshot.readCount(data);
+            list.lastDoc = data.readInt();
+            list.length = AuthorSnapshot.readCount(data);
+            if (list.count > list.length) {
+                throw new IOException("Corrupted search index: " + list.count + " postings in " + list.length + " bytes");
+            }
+            byte[] bytes = AuthorSnapshot.readBytes(data, list.length);
+            list.bytes = bytes.length < 8 ? Arrays.copyOf(bytes, 8) : bytes;
+            index.postings.put(term, list);
+        }
+        return index;
+    }
+
+    /**
+     * Возрастающий список номеров статей, закодированный разностями в формате varint.
+     */
+    private static final class PostingList {
+        private byte[] bytes = new byte[8];
+        private int length;
+        private int count;
+        private int lastDoc = -1;
+
+        /**
+         * Добавляет статью в конец списка. Повторное добавление последней статьи игнорируется.
+         *
+         * @param doc Номер статьи, не меньше последнего добавленного
+         */
+        void add(int doc) {
+            if (doc == lastDoc) return;
+            int gap = doc - lastDoc;
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((gap & ~0x7F) != 0) {
+                bytes[length++] = (byte) (gap & 0x7F | 0x80);
+                gap >>>= 7;
+            }
+            bytes[length++] = (byte) gap;
+            lastDoc = doc;
+            count++;
+        }
+
+        /**
+         * Раскодирует список.
+         *
+         * @return Номера статей по возрастанию
+         */
+        int[] decode() {
+            int[] docs = new int[count];
+            int position = 0;
+            int doc = -1;
+            for (int i = 0; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += gap;
+                docs[i] = doc;
+            }
+            return docs;
+        }
+
+        /**
+         * Оставляет в начале массива только статьи, которые есть в этом списке.
+         * Список раскодируется один раз, слиянием с массивом.
+         *
+         * @param docs Номера статей по возрастанию
+         * @param size Количество значимых элементов массива
+         * @return Количество оставшихся элементов
+         */
+        int retain(int[] docs, int size) {
+            int kept = 0;
+            int position = 0;
+            int doc = -1;
+            int decoded = 0;
+            for (int i = 0; i < size; i++) {
+                while (doc < docs[i] && decoded < count) {
+                    int gap = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = bytes[position++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    doc += gap;
+                    decoded++;
+                }
+                if (doc == docs[i]) {
+                    docs[kept++] = docs[i];
+                } else if (doc < docs[i]) {
+                    break;
+                }
+            }
+            return kept;
+        }
+    }
+}
@@ -1,7 +1,35 @@
 package com.elibrary.elibrary;
 
 /**
- * Представляет статью с нулевым количеством цитирований.
+ * Представляет статью автора. По умолчанию парсер сохраняет только статьи с нулевым количеством цитирований,
+ * другие статьи попадают сюда при выборе другого {@link ArticleFilter}.
+ *
+ * @param title              Название статьи.
+ * @param jointAuthors       Совместные авторы.
+ * @param placeOfPublication Место публикации, как оно указано на странице.
+ * @param venue              Разобранное место публикации.
+ * @param citations          Количество цитирований.
  */
-public record ArticleWithZeroCitations(String title, String jointAuthors, String placeOfPublication) {
+public record ArticleWithZeroCitations(String title, String jointAuthors, String placeOfPublication,
+                                       PublicationVenue venue, int citations) {
+
+    /**
+     * Создаёт статью с нулевым цитированием, разбирая место публикации через {@link PublicationVenue#parse(String)}.
+     *
+     * @param title              Название статьи.
+     * @param jointAuthors       Совместные авторы.
+     * @param placeOfPublication Место публикации, как оно указано на странице.
+     */
+    public ArticleWithZeroCitations(String title, String jointAuthors, String placeOfPublication) {
+        this(title, jointAuthors, placeOfPublication, PublicationVenue.parse(placeOfPublication), 0);
+    }
+
+    /**
+     * Возвращает стабильный 64-битный ключ статьи: хеш нормализованного названия и года публикации.
+     *
+     * @return Ключ статьи
+     */
+    public long key() {
+        return StableKeys.of(title, Integer.toString(venue.year()));
+    }
 }
@@ -10,6 +10,10 @@ import java.util.stream.IntStream;
 
 /**
  * Класс Author представляет автора статей.
+ * <p>
+ * Автор заполняется только при разборе ({@link ELibraryParser}) и чтении снимка ({@link AuthorSnapshot}):
+ * методы изменения доступны только внутри пакета. Для остального кода автор неизменяем, поэтому один объект
+ * можно одновременно использовать в результате разбора, поисковом индексе, рейтингах и отчётах.
  */
 public class Author {
     private static final Logger LOGGER = LogManager.getLogger(Author.class);
@@ -21,6 +25,14 @@ public class Author {
      * Место работы автора.
      */
     private String placeOfWork;
+    /**
+     * Каноническое название организации, полученное {@link AffiliationNormalizer}.
+     */
+    private String organization;
+    /**
+     * Идентификатор автора на elibrary.ru (authorid); 0, если он не указан на странице.
+     */
+    private long authorId;
 
     /**
      * Индекс Hirsch.
@@ -54,7 +66,7 @@ public class Author {
      *
      * @param name Имя автора.
      */
-    public void setName(String name) {
+    void setName(String name) {
         this.name = name;
     }
 
@@ -63,10 +75,28 @@ public class Author {
      *
      * @param placeOfWork Место работы автора.
      */
-    public void setPlaceOfWork(String placeOfWork) {
+    void setPlaceOfWork(String placeOfWork) {
         this.placeOfWork = placeOfWork;
     }
 
+    /**
+     * Устанавливает каноническое название организации автора.
+     *
+     * @param organization Каноническое название организации.
+     */
+    void setOrganization(String organization) {
+        this.organization = organization;
+    }
+
+    /**
+     * Устанавливает идентификатор автора на elibrary.ru.
+     *
+     * @param authorId Идентификатор автора (authorid); 0 - неизвестен.
+     */
+    void setAuthorId(long authorId) {
+        this.authorId = authorId;
+    }
+
     /**
      * Добавляет статью с нулевым цитированием для автора.
      *
@@ -74,10 +104,24 @@ public class Author {
      * @param jointAuthors       Список совместных авторов.
      * @param placeOfPublication Место публикации статьи.
      */
-    public void addArticle(String title, String jointAuthors, String placeOfPublication) {
+    void addArticle(String title, String jointAuthors, String placeOfPublication) {
         articles.add(new ArticleWithZeroCitations(title, jointAuthors, placeOfPublication));
     }
 
+    /**
+     * Добавляет статью для автора с уже разобранным местом публикации.
+     *
+     * @param title              Название статьи.
+     * @param jointAuthors       Список совместных авторов.
+     * @param placeOfPublication Место публикации статьи.
+     * @param venue              Разобранное место публикации.
+     * @param citations          Количество цитирований статьи.
+     */
+    void addArticle(String title, String jointAuthors, String placeOfPublication, PublicationVenue venue,
+                           int citations) {
+        articles.add(new ArticleWithZeroCitations(title, jointAuthors, placeOfPublication, venue, citations));
+    }
+
     /**
      * Вычисляет индекс Hirsch на основе списка цитат.
      */
@@ -137,12 +181,54 @@ public class Author {
     }
 
     /**
-     * Возвращает список статей с нулевым цитированием автора.
+     * Возвращает каноническое название организации автора, по которому авторы группируются.
+     * Если оно не задано, возвращается место работы.
+     *
+     * @return Каноническое название организации.
+     */
+    public String getOrganization() {
+        return organization != null ? organization : placeOfWork;
+    }
+
+    /**
+     * Возвращает идентификатор автора на elibrary.ru.
+     *
+     * @return Идентификатор автора (authorid); 0, если он не указан на странице.
+     */
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    /**
+     * Возвращает стабильный 64-битный ключ автора для сопоставления результатов разных запусков.
+     * Если известен {@link #getAuthorId()}, ключ строится по нему, иначе - по нормализованным ФИО и месту работы,
+     * что разделяет однофамильцев из разных организаций. Каноническая организация ({@link #getOrganization()})
+     * в ключ не входит: она зависит от словаря псевдонимов, а ключ должен зависеть только от страницы.
+     * В сохранённых страницах elibrary.ru authorid обычно отсутствует, поэтому чаще используется второй вариант.
      *
-     * @return Список статей с нулевым цитированием автора.
+     * @return Ключ автора
+     */
+    public long getKey() {
+        return authorId > 0 ? StableKeys.ofAuthorId(authorId) : StableKeys.of(name, placeOfWork);
+    }
+
+    /**
+     * Возвращает список статей автора, отобранных {@link ArticleFilter} при парсинге
+     * (по умолчанию - статьи с нулевым цитированием).
+     *
+     * @return Неизменяемое представление списка статей автора.
      */
     public List<ArticleWithZeroCitations> getArticles() {
-        return articles;
+        return Collections.unmodifiableList(articles);
+    }
+
+    /**
+     * Возвращает количество цитирований всех публикаций автора в порядке страницы.
+     *
+     * @return Неизменяемое представление списка цитирований.
+     */
+    List<String> getCitations() {
+        return Collections.unmodifiableList(citations);
     }
 
     /**
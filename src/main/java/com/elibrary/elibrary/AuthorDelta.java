@@ -0,0 +1,81 @@
+package com.elibrary.elibrary;
+
+import java.util.List;
+
+/**
+ * Изменения показателей одного автора между двумя снимками.
+ *
+ * @param name                Имя автора
+ * @param placeOfWork         Место работы автора (по более новому снимку)
+ * @param change              Вид изменения
+ * @param indexHBefore        Индекс Хирша в старом снимке
+ * @param indexHAfter         Индекс Хирша в новом снимке
+ * @param publicationsBefore  Количество статей в старом снимке
+ * @param publicationsAfter   Количество статей в новом снимке
+ * @param zeroCitationsBefore Количество статей с нулевым цитированием в старом снимке
+ * @param zeroCitationsAfter  Количество статей с нулевым цитированием в новом снимке
+ * @param newArticles         Статьи, которых не было в старом снимке
+ * @param firstCited          Статьи, получившие первое цитирование
+ */
+public record AuthorDelta(String name, String placeOfWork, Change change, int indexHBefore, int indexHAfter,
+                          int publicationsBefore, int publicationsAfter,
+                          int zeroCitationsBefore, int zeroCitationsAfter,
+                          List<ArticleWithZeroCitations> newArticles, List<ArticleWithZeroCitations> firstCited) {
+
+    /**
+     * Вид изменения автора.
+     */
+    public enum Change {
+        /**
+         * Автор есть только в новом снимке.
+         */
+        ADDED,
+        /**
+         * Автор есть только в старом снимке.
+         */
+        REMOVED,
+        /**
+         * Показатели или статьи автора изменились.
+         */
+        CHANGED,
+        /**
+         * Изменений нет.
+         */
+        UNCHANGED
+    }
+
+    /**
+     * Создаёт изменения, копируя списки статей.
+     */
+    public AuthorDelta {
+        newArticles = List.copyOf(newArticles);
+        firstCited = List.copyOf(firstCited);
+    }
+
+    /**
+     * Возвращает изменение индекса Хирша.
+     *
+     * @return Разница нового и старого значения
+     */
+    public int indexHDelta() {
+        return indexHAfter - indexHBefore;
+    }
+
+    /**
+     * Возвращает изменение количества статей.
+     *
+     * @return Разница нового и старого значения
+     */
+    public int publicationsDelta() {
+        return publicationsAfter - publicationsBefore;
+    }
+
+    /**
+     * Возвращает изменение количества статей с нулевым цитированием.
+     *
+     * @return Разница нового и старого значения
+     */
+    public int zeroCitationsDelta() {
+        return zeroCitationsAfter - zeroCitationsBefore;
+    }
+}
@@ -0,0 +1,87 @@
+package com.elibrary.elibrary;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Показатель автора, по которому строится рейтинг {@link AuthorRanking}.
+ * Все показатели неотрицательны.
+ */
+public enum AuthorMetric {
+    /**
+     * Индекс Хирша.
+     */
+    INDEX_H("Индекс Хирша") {
+        @Override
+        public int value(Author author) {
+            return author.getIndexH();
+        }
+    },
+    /**
+     * Количество статей.
+     */
+    PUBLICATIONS("Количество статей") {
+        @Override
+        public int value(Author author) {
+            return author.getNumberOfPublications();
+        }
+    },
+    /**
+     * Количество статей с нулевым цитированием.
+     */
+    ZERO_CITATIONS("Статей с нулевым цитированием") {
+        @Override
+        public int value(Author author) {
+            return author.getNumberOfZeroCitations();
+        }
+    },
+    /**
+     * Суммарное количество цитирований всех статей.
+     */
+    CITATIONS("Цитирований") {
+        @Override
+        public int value(Author author) {
+            List<String> citations = author.getCitations();
+            long sum = 0;
+            for (String citation : citations) {
+                sum += Integer.parseInt(citation);
+            }
+            return (int) Math.min(sum, Integer.MAX_VALUE);
+        }
+    };
+
+    private final String title;
+
+    AuthorMetric(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Вычисляет показатель автора.
+     *
+     * @param author Автор
+     * @return Значение показателя
+     */
+    public abstract int value(Author author);
+
+    /**
+     * Возвращает название показателя для отчёта.
+     *
+     * @return Название показателя
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Возвращает показатель по имени без учёта регистра: {@code index_h}, {@code publications},
+     * {@code zero_citations} или {@code citations}.
+     *
+     * @param name Имя показателя
+     * @return Показатель
+     * @throws IllegalArgumentException Если показатель неизвестен
+     */
+    public static AuthorMetric parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
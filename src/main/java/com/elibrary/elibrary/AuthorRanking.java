@@ -0,0 +1,234 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Рейтинги авторов по показателю {@link AuthorMetric}.
+ * Лучшие K авторов отбираются ограниченной кучей за O(n log k), без сортировки всего списка,
+ * поэтому запросы остаются дешёвыми и на десятках тысяч авторов.
+ * При равных значениях выше оказывается автор, который встретился в списке раньше.
+ * Авторы обходятся один раз, поэтому рейтинг можно строить и по {@link SpillingAuthorStore}:
+ * в куче остаются только отобранные авторы.
+ */
+public final class AuthorRanking {
+
+    private AuthorRanking() {
+    }
+
+    /**
+     * Возвращает K авторов с наибольшим значением показателя.
+     *
+     * @param authors Авторы
+     * @param metric  Показатель
+     * @param count   Количество авторов в рейтинге
+     * @return Авторы в порядке убывания показателя
+     */
+    public static List<Author> top(Iterable<Author> authors, AuthorMetric metric, int count) {
+        BoundedHeap heap = new BoundedHeap(count);
+        int index = 0;
+        for (Author author : authors) {
+            heap.offer(metric.value(author), index++, author);
+        }
+        return heap.drain();
+    }
+
+    /**
+     * Возвращает K лучших авторов по показателю в каждом месте работы.
+     *
+     * @param authors Авторы
+     * @param metric  Показатель
+     * @param count   Количество авторов в рейтинге каждого места работы
+     * @return Рейтинги по местам работы в порядке первого появления места работы
+     */
+    public static Map<String, List<Author>> topByPlaceOfWork(Iterable<Author> authors, AuthorMetric metric,
+                                                             int count) {
+        return topBy(authors, Author::getPlaceOfWork, metric, count);
+    }
+
+    /**
+     * Возвращает K лучших авторов по показателю в каждой организации ({@link Author#getOrganization()}).
+     *
+     * @param authors Авторы
+     * @param metric  Показатель
+     * @param count   Количество авторов в рейтинге каждой организации
+     * @return Рейтинги по организациям в порядке первого появления организации
+     */
+    public static Map<String, List<Author>> topByOrganization(Iterable<Author> authors, AuthorMetric metric,
+                                                              int count) {
+        return topBy(authors, Author::getOrganization, metric, count);
+    }
+
+    /**
+     * Возвращает K лучших авторов по показателю в каждой группе.
+     *
+     * @param authors Авторы
+     * @param group   Функция, возвращающая ключ группы автора
+     * @param metric  Показатель
+     * @param count   Количество авторов в рейтинге каждой группы
+     * @return Рейтинги по группам в порядке первого появления группы
+     */
+    public static Map<String, List<Author>> topBy(Iterable<Author> authors, Function<Author, String> group,
+                                                  AuthorMetric metric, int count) {
+        Map<String, BoundedHeap> heaps = new LinkedHashMap<>();
+        int index = 0;
+        for (Author author : authors) {
+            heaps.computeIfAbsent(group.apply(author), key -> new BoundedHeap(count))
+                    .offer(metric.value(author), index++, author);
+        }
+        Map<String, List<Author>> rankings = new LinkedHashMap<>(heaps.size() * 2);
+        heaps.forEach((key, heap) -> rankings.put(key, heap.drain()));
+        return rankings;
+    }
+
+    /**
+     * Собирает общий рейтинг и рейтинги по организациям за один обход авторов,
+     * чтобы их можно было строить во время записи отчёта, не перечитывая {@link SpillingAuthorStore}.
+     * Результаты извлекаются один раз.
+     */
+    static final class Accumulator {
+        private final AuthorMetric metric;
+        private final int count;
+        private final BoundedHeap overall;
+        private final Map<String, BoundedHeap> byOrganization = new LinkedHashMap<>();
+        private int index;
+
+        /**
+         * Создаёт пустой накопитель.
+         *
+         * @param metric Показатель
+         * @param count  Количество авторов в каждом рейтинге
+         */
+        Accumulator(AuthorMetric metric, int count) {
+            this.metric = metric;
+            this.count = count;
+            this.overall = new BoundedHeap(count);
+        }
+
+        /**
+         * Учитывает следующего автора.
+         *
+         * @param author Автор
+         */
+        void add(Author author) {
+            int value = metric.value(author);
+            overall.offer(value, index, author);
+            byOrganization.computeIfAbsent(author.getOrganization(), key -> new BoundedHeap(count))
+                    .offer(value, index, author);
+            index++;
+        }
+
+        /**
+         * Проверяет, был ли учтён хотя бы один автор.
+         *
+         * @return true, если не было учтено ни одного автора
+         */
+        boolean isEmpty() {
+            return index == 0;
+        }
+
+        /**
+         * Возвращает K авторов с наибольшим значением показателя.
+         *
+         * @return Авторы в порядке убывания показателя, как у {@link #top(Iterable, AuthorMetric, int)}
+         */
+        List<Author> top() {
+            return overall.drain();
+        }
+
+        /**
+         * Возвращает K лучших авторов в каждой организации.
+         *
+         * @return Рейтинги по организациям в порядке первого появления, как у
+         * {@link #topByOrganization(Iterable, AuthorMetric, int)}
+         */
+        Map<String, List<Author>> topByOrganization() {
+            Map<String, List<Author>> rankings = new LinkedHashMap<>(byOrganization.size() * 2);
+            byOrganization.forEach((key, heap) -> rankings.put(key, heap.drain()));
+            return rankings;
+        }
+    }
+
+    /**
+     * Куча с минимумом в корне, хранящая не более заданного числа лучших элементов.
+     * Ключ элемента упакован в long: старшие 32 бита - значение показателя, младшие - инвертированный
+     * порядковый номер автора. Авторы хранятся в параллельном массиве и перемещаются вместе с ключами.
+     */
+    private static final class BoundedHeap {
+        private final int capacity;
+        private long[] keys;
+        private Author[] authors;
+        private int size;
+
+        BoundedHeap(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Count must not be negative: " + capacity);
+            }
+            this.capacity = capacity;
+            keys = new long[Math.min(capacity, 16)];
+            authors = new Author[keys.length];
+        }
+
+        void offer(int value, int index, Author author) {
+            long key = (long) value << 32 | (Integer.MAX_VALUE - index);
+            if (size < capacity) {
+                if (size == keys.length) {
+                    int length = (int) Math.min(capacity, 2L * size);
+                    keys = Arrays.copyOf(keys, length);
+                    authors = Arrays.copyOf(authors, length);
+                }
+                siftUp(size++, key, author);
+            } else if (size > 0 && key > keys[0]) {
+                siftDown(0, key, author);
+            }
+        }
+
+        /**
+         * Извлекает элементы кучи. Куча после вызова пуста.
+         *
+         * @return Авторы в порядке убывания ключа
+         */
+        List<Author> drain() {
+            Author[] result = new Author[size];
+            while (size > 0) {
+                result[size - 1] = authors[0];
+                size--;
+                long lastKey = keys[size];
+                Author lastAuthor = authors[size];
+                authors[size] = null;
+                if (size > 0) siftDown(0, lastKey, lastAuthor);
+            }
+            return new ArrayList<>(Arrays.asList(result));
+        }
+
+        private void siftUp(int i, long key, Author author) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                authors[i] = authors[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            authors[i] = author;
+        }
+
+        private void siftDown(int i, long key, Author author) {
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (key <= keys[child]) break;
+                keys[i] = keys[child];
+                authors[i] = authors[child];
+                i = child;
+            }
+            keys[i] = key;
+            authors[i] = author;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.elibrary.elibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Двоичный снимок результатов парсинга для последующего сравнения {@link AuthorSnapshotDiff}.
+ * Хранит для каждого автора имя, место работы, организацию, идентификатор elibrary.ru, цитирования всех публикаций и отобранные статьи,
+ * поэтому индекс Хирша и счётчики при чтении вычисляются так же, как при парсинге.
+ * <p>
+ * Для точного определения новых статей снимок стоит делать парсером с {@link ArticleFilter#all()}.
+ */
+public final class AuthorSnapshot {
+    private static final int MAGIC = 0x454C5331;
+    private static final int VERSION = 1;
+    /**
+     * Наибольший блок, который выделяется при чтении строки до того, как её байты действительно прочитаны
+     */
+    private static final int READ_CHUNK = 64 * 1024;
+    /**
+     * Наибольшая начальная ёмкость списка, заданного количеством из файла
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private AuthorSnapshot() {
+    }
+
+    /**
+     * Записывает снимок в файл.
+     *
+     * @param authors Авторы
+     * @param file    Файл снимка
+     * @throws IOException При ошибке записи
+     */
+    public static void write(List<Author> authors, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            write(authors, out);
+        }
+    }
+
+    /**
+     * Записывает снимок в поток. Поток не закрывается.
+     *
+     * @param authors Авторы
+     * @param out     Поток
+     * @throws IOException При ошибке записи
+     */
+    public static void write(List<Author> authors, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(authors.size());
+        for (Author author : authors) {
+            writeAuthor(data, author);
+        }
+        data.flush();
+    }
+
+    /**
+     * Записывает одного автора в текущем формате.
+     *
+     * @param data   Поток
+     * @param author Автор
+     * @throws IOException При ошибке записи
+     */
+    static void writeAuthor(DataOutputStream data, Author author) throws IOException {
+        writeString(data, author.getName());
+        writeString(data, author.getPlaceOfWork());
+        writeString(data, author.getOrganization());
+        data.writeLong(author.getAuthorId());
+        List<String> citations = author.getCitations();
+        data.writeInt(citations.size());
+        for (String citation : citations) {
+            data.writeInt(Integer.parseInt(citation));
+        }
+        List<ArticleWithZeroCitations> articles = author.getArticles();
+        data.writeInt(articles.size());
+        for (ArticleWithZeroCitations article : articles) {
+            writeString(data, article.title());
+            writeString(data, article.jointAuthors());
+            writeString(data, article.placeOfPublication());
+            data.writeInt(article.citations());
+        }
+    }
+
+    /**
+     * Читает снимок из файла.
+     *
+     * @param file Файл снимка
+     * @return Авторы в порядке записи
+     * @throws IOException При ошибке чтения или неверном формате файла
+     */
+    public static List<Author> read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Читает снимок из потока. Поток не закрывается.
+     *
+     * @param in Поток
+     * @return Авторы в порядке записи
+     * @throws IOException При ошибке чтения или неверном формате данных
+     */
+    public static List<Author> read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an author snapshot");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version: " + version);
+        }
+        int authorCount = readCount(data);
+        List<Author> authors = new ArrayList<>(Math.min(authorCount, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < authorCount; i++) {
+            authors.add(readAuthor(data));
+        }
+        return authors;
+    }
+
+    /**
+     * Читает одного автора, записанного {@link #writeAuthor(DataOutputStream, Author)}.
+     *
+     * @param data Поток
+     * @return Автор
+     * @throws IOException При ошибке чтения или неверном формате данных
+     */
+    static Author readAuthor(DataInputStream data) throws IOException {
+        String name = readString(data);
+        String placeOfWork = readString(data);
+        String organization = readString(data);
+        long authorId = data.readLong();
+        int citationCount = readCount(data);
+        List<String> citations = new ArrayList<>(Math.min(citationCount, MAX_INITIAL_CAPACITY));
+        for (int j = 0; j < citationCount; j++) {
+            citations.add(Integer.toString(data.readInt()));
+        }
+        Author author = new Author(citations);
+        author.setName(name);
+        author.setPlaceOfWork(placeOfWork);
+        author.setOrganization(organization);
+        author.setAuthorId(authorId);
+        int articleCount = readCount(data);
+        for (int j = 0; j < articleCount; j++) {
+            String title = readString(data);
+            String jointAuthors = readString(data);
+            String placeOfPublication = readString(data);
+            author.addArticle(title, jointAuthors, placeOfPublication,
+                    PublicationVenue.parse(placeOfPublication), data.readInt());
+        }
+        return author;
+    }
+
+    /**
+     * Записывает строку в UTF-8 с длиной в байтах; null записывается как длина -1.
+     *
+     * @param data  Поток
+     * @param value Строка, может быть null
+     * @throws IOException При ошибке записи
+     */
+    static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    /**
+     * Читает строку, записанную {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param data Поток
+     * @return Строка или null
+     * @throws IOException При ошибке чтения или если длина строки больше оставшихся данных
+     */
+    static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length == -1) return null;
+        return new String(readBytes(data, length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Читает заданное количество байтов. Длина берётся из файла и ей нельзя доверять,
+     * поэтому массив растёт блоками {@link #READ_CHUNK} по мере чтения и никогда не превышает
+     * объём действительно оставшихся в потоке данных более чем вдвое.
+     *
+     * @param data   Поток
+     * @param length Количество байтов из файла
+     * @return Прочитанные байты
+     * @throws IOException При ошибке чтения, отрицательной длине или если поток закончился раньше
+     */
+    static byte[] readBytes(DataInputStream data, int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("Corrupted data: negative length " + length);
+        }
+        byte[] bytes = new byte[Math.min(length, READ_CHUNK)];
+        int read = 0;
+        while (read < length) {
+            if (read == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+            }
+            int n = data.read(bytes, read, bytes.length - read);
+            if (n < 0) {
+                throw new IOException("Corrupted data: expected " + length + " bytes, but only " + read + " remain");
+            }
+            read += n;
+        }
+        return bytes;
+    }
+
+    /**
+     * Читает количество элементов и проверяет, что оно не отрицательно.
+     *
+     * @param data Поток
+     * @return Количество элементов
+     * @throws IOException При ошибке чтения или отрицательном количестве
+     */
+    static int readCount(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("Corrupted data: negative count " + count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,219 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Сравнение двух наборов авторов (например, прочитанных из {@link AuthorSnapshot}).
+ * Авторы сопоставляются по стабильному ключу {@link Author#getKey()}, статьи - по ключу
+ * {@link ArticleWithZeroCitations#key()} через хеш-соединения, поэтому время работы линейно от общего числа
+ * авторов и статей. Авторы и статьи с одинаковыми ключами сопоставляются в порядке следования.
+ * <p>
+ * Автор, не найденный по ключу, сопоставляется по нормализованному ФИО, если хотя бы у одного из двух авторов
+ * нет идентификатора elibrary.ru: так сравниваются страницы без authorid, а также
+ * авторы, сменившие организацию. Авторы с разными идентификаторами не сопоставляются никогда.
+ * <p>
+ * Если в старом снимке у автора сохранены не все статьи (например, только статьи с нулевым цитированием),
+ * новой считается только статья без цитирований, которой не было в старом снимке: цитирования не уменьшаются,
+ * значит, раньше её не было. Если в новом снимке сохранены не все статьи, статья с нулевым цитированием,
+ * пропавшая из него, считается получившей первое цитирование.
+ */
+public final class AuthorSnapshotDiff {
+
+    private AuthorSnapshotDiff() {
+    }
+
+    /**
+     * Автор старого снимка и его позиция в нём.
+     *
+     * @param author   Автор
+     * @param position Номер автора в старом снимке
+     */
+    private record Candidate(Author author, int position) {
+    }
+
+    /**
+     * Кандидаты с одним ключом: общая очередь в порядке снимка и очереди по идентификатору elibrary.ru.
+     * Каждый кандидат лежит в двух очередях; сопоставленные удаляются из головы очереди при следующем обращении,
+     * поэтому каждый кандидат извлекается не больше двух раз.
+     */
+    private static final class Candidates {
+        private final ArrayDeque<Candidate> all = new ArrayDeque<>(1);
+        private final Map<Long, ArrayDeque<Candidate>> byAuthorId = new HashMap<>(2);
+
+        void add(Candidate candidate) {
+            all.addLast(candidate);
+            byAuthorId.computeIfAbsent(candidate.author().getAuthorId(), id -> new ArrayDeque<>(1)).addLast(candidate);
+        }
+
+        /**
+         * Возвращает первого по порядку снимка ещё не сопоставленного кандидата, совместимого с автором:
+         * с тем же идентификатором или без идентификатора, а для автора без идентификатора - любого.
+         *
+         * @param matched Уже сопоставленные авторы старого снимка
+         * @param current Автор нового снимка
+         * @return Автор старого снимка или null
+         */
+        Author poll(Set<Author> matched, Author current) {
+            long authorId = current.getAuthorId();
+            if (authorId == 0) {
+                Candidate first = head(all, matched);
+                return first == null ? null : all.pollFirst().author();
+            }
+            ArrayDeque<Candidate> same = byAuthorId.get(authorId);
+            ArrayDeque<Candidate> anonymous = byAuthorId.get(0L);
+            Candidate sameHead = head(same, matched);
+            Candidate anonymousHead = head(anonymous, matched);
+            if (sameHead == null && anonymousHead == null) return null;
+            if (anonymousHead == null || sameHead != null && sameHead.position() < anonymousHead.position()) {
+                return same.pollFirst().author();
+            }
+            return anonymous.pollFirst().author();
+        }
+
+        private static Candidate head(ArrayDeque<Candidate> queue, Set<Author> matched) {
+            if (queue == null) return null;
+            while (!queue.isEmpty() && matched.contains(queue.peekFirst().author())) {
+                queue.pollFirst();
+            }
+            return queue.peekFirst();
+        }
+    }
+
+    /**
+     * Сравнивает два набора авторов.
+     *
+     * @param before Авторы старого снимка
+     * @param after  Авторы нового снимка
+     * @return Изменения в порядке нового снимка, затем авторы, которых в нём нет
+     */
+    public static List<AuthorDelta> diff(List<Author> before, List<Author> after) {
+        Map<Long, Candidates> beforeByKey = candidates(before, Author::getKey);
+        Map<Long, Candidates> beforeByName = candidates(before, AuthorSnapshotDiff::nameKey);
+        Set<Author> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<AuthorDelta> deltas = new ArrayList<>(Math.max(before.size(), after.size()));
+        for (Author current : after) {
+            Author previous = pollUnmatched(beforeByKey.get(current.getKey()), matched, current);
+            if (previous == null) {
+                previous = pollUnmatched(beforeByName.get(nameKey(current)), matched, current);
+            }
+            if (previous == null) {
+                deltas.add(new AuthorDelta(current.getName(), current.getPlaceOfWork(), AuthorDelta.Change.ADDED,
+                        0, current.getIndexH(), 0, current.getNumberOfPublications(),
+                        0, current.getNumberOfZeroCitations(), current.getArticles(), List.of()));
+            } else {
+                matched.add(previous);
+                deltas.add(compare(previous, current));
+            }
+        }
+        for (Author previous : before) {
+            if (matched.contains(previous)) continue;
+            deltas.add(new AuthorDelta(previous.getName(), previous.getPlaceOfWork(), AuthorDelta.Change.REMOVED,
+                    previous.getIndexH(), 0, previous.getNumberOfPublications(), 0,
+                    previous.getNumberOfZeroCitations(), 0, List.of(), List.of()));
+        }
+        return deltas;
+    }
+
+    /**
+     * Извлекает первого ещё не сопоставленного автора, совместимого с текущим.
+     *
+     * @param candidates Кандидаты с ключом текущего автора, может быть null
+     * @param matched    Уже сопоставленные авторы старого снимка
+     * @param current    Автор нового снимка
+     * @return Автор старого снимка или null
+     */
+    private static Author pollUnmatched(Candidates candidates, Set<Author> matched, Author current) {
+        return candidates == null ? null : candidates.poll(matched, current);
+    }
+
+    /**
+     * Сравнивает статьи и показатели одного автора.
+     *
+     * @param previous Автор в старом снимке
+     * @param current  Автор в новом снимке
+     * @return Изменения автора
+     */
+    private static AuthorDelta compare(Author previous, Author current) {
+        boolean previousComplete = previous.getArticles().size() == previous.getNumberOfPublications();
+        boolean currentComplete = current.getArticles().size() == current.getNumberOfPublications();
+        Map<Long, ArrayDeque<ArticleWithZeroCitations>> previousByKey =
+                index(previous.getArticles(), ArticleWithZeroCitations::key);
+        List<ArticleWithZeroCitations> newArticles = new ArrayList<>();
+        List<ArticleWithZeroCitations> firstCited = new ArrayList<>();
+        for (ArticleWithZeroCitations article : current.getArticles()) {
+            ArrayDeque<ArticleWithZeroCitations> candidates = previousByKey.get(article.key());
+            ArticleWithZeroCitations old = candidates != null ? candidates.pollFirst() : null;
+            if (old == null) {
+                if (previousComplete || article.citations() == 0) newArticles.add(article);
+            } else if (old.citations() == 0 && article.citations() > 0) {
+                firstCited.add(article);
+            }
+        }
+        if (!currentComplete) {
+            for (ArrayDeque<ArticleWithZeroCitations> unmatched : previousByKey.values()) {
+                for (ArticleWithZeroCitations old : unmatched) {
+                    if (old.citations() == 0) firstCited.add(old);
+                }
+            }
+        }
+        boolean changed = !newArticles.isEmpty() || !firstCited.isEmpty()
+                || previous.getIndexH() != current.getIndexH()
+                || previous.getNumberOfPublications() != current.getNumberOfPublications()
+                || previous.getNumberOfZeroCitations() != current.getNumberOfZeroCitations();
+        return new AuthorDelta(current.getName(), current.getPlaceOfWork(),
+                changed ? AuthorDelta.Change.CHANGED : AuthorDelta.Change.UNCHANGED,
+                previous.getIndexH(), current.getIndexH(),
+                previous.getNumberOfPublications(), current.getNumberOfPublications(),
+                previous.getNumberOfZeroCitations(), current.getNumberOfZeroCitations(), newArticles, firstCited);
+    }
+
+    /**
+     * Строит хеш-индекс элементов по ключу, сохраняя порядок элементов с одинаковым ключом.
+     *
+     * @param items Элементы
+     * @param key   Функция ключа
+     * @param <T>   Тип элементов
+     * @return Очереди элементов по ключам
+     */
+    private static <T> Map<Long, ArrayDeque<T>> index(List<T> items, ToLongFunction<T> key) {
+        Map<Long, ArrayDeque<T>> index = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            index.computeIfAbsent(key.applyAsLong(item), k -> new ArrayDeque<>(1)).addLast(item);
+        }
+        return index;
+    }
+
+    /**
+     * Группирует авторов старого снимка по ключу, сохраняя их порядок.
+     *
+     * @param authors Авторы
+     * @param key     Функция ключа
+     * @return Кандидаты по ключам
+     */
+    private static Map<Long, Candidates> candidates(List<Author> authors, ToLongFunction<Author> key) {
+        Map<Long, Candidates> index = new HashMap<>(authors.size() * 2);
+        for (int i = 0; i < authors.size(); i++) {
+            Author author = authors.get(i);
+            index.computeIfAbsent(key.applyAsLong(author), k -> new Candidates()).add(new Candidate(author, i));
+        }
+        return index;
+    }
+
+    /**
+     * Возвращает ключ автора по нормализованному ФИО для сопоставления без идентификатора.
+     *
+     * @param author Автор
+     * @return Ключ ФИО
+     */
+    private static long nameKey(Author author) {
+        return StableKeys.of(author.getName());
+    }
+}
@@ -0,0 +1,165 @@
+package com.elibrary.elibrary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Быстрая проверка HTML-файла перед полным разбором.
+ * Читает только начало и конец файла и отсеивает файлы, которые не являются страницей списка публикаций
+ * elibrary.ru или были сохранены не полностью, не строя DOM-дерево.
+ * <p>
+ * Страница считается подходящей, если в первых {@link #HEAD_BYTES} байтах есть тег {@code <table}
+ * и хотя бы одна из сигнатур страницы (маркер {@code author_items_print}, заголовок "SCIENCE INDEX",
+ * "Список публикаций" или "Цитирований" в UTF-8 или windows-1251), а последние {@link #TAIL_BYTES} байт
+ * содержат закрывающий тег {@code </html>}.
+ */
+public final class ELibraryFilePrefilter {
+    /**
+     * Количество байт в начале файла, в которых ищутся сигнатуры
+     */
+    static final int HEAD_BYTES = 16 * 1024;
+    /**
+     * Количество байт в конце файла, в которых ищется закрывающий тег
+     */
+    static final int TAIL_BYTES = 1024;
+
+    private static final byte[] TABLE = ascii("<table");
+    private static final byte[] HTML_END = ascii("</html");
+    private static final byte[][] SIGNATURES = {
+            ascii("author_items_print"),
+            ascii("SCIENCE INDEX"),
+            "Список публикаций".getBytes(StandardCharsets.UTF_8),
+            "Список публикаций".getBytes(Charset.forName("windows-1251")),
+            "Цитирований".getBytes(StandardCharsets.UTF_8),
+            "Цитирований".getBytes(Charset.forName("windows-1251")),
+    };
+
+    private ELibraryFilePrefilter() {
+    }
+
+    /**
+     * Проверяет, стоит ли разбирать файл.
+     *
+     * @param path Путь к файлу
+     * @return Причина отказа или пустое значение, если файл похож на страницу elibrary.ru
+     * @throws IOException Если файл не удалось прочитать
+     */
+    public static Optional<String> rejectionReason(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return Optional.of("Empty file");
+            }
+            ByteBuffer head = read(channel, 0, (int) Math.min(size, HEAD_BYTES));
+            ByteBuffer tail = size <= HEAD_BYTES
+                    ? head.duplicate().position((int) Math.max(0, size - TAIL_BYTES))
+                    : read(channel, size - TAIL_BYTES, TAIL_BYTES);
+            return rejectionReason(head, tail);
+        }
+    }
+
+    /**
+     * Проверяет страницу, уже прочитанную в память (например, запись архива).
+     *
+     * @param page Содержимое страницы
+     * @return Причина отказа или пустое значение, если страница похожа на страницу elibrary.ru
+     */
+    public static Optional<String> rejectionReason(byte[] page) {
+        return rejectionReason(page, page.length);
+    }
+
+    /**
+     * Проверяет страницу, прочитанную в начало буфера.
+     *
+     * @param page   Буфер со страницей
+     * @param length Количество байт страницы в начале буфера
+     * @return Причина отказа или пустое значение, если страница похожа на страницу elibrary.ru
+     */
+    public static Optional<String> rejectionReason(byte[] page, int length) {
+        if (length == 0) {
+            return Optional.of("Empty file");
+        }
+        int tailStart = Math.max(0, length - TAIL_BYTES);
+        return rejectionReason(ByteBuffer.wrap(page, 0, Math.min(length, HEAD_BYTES)),
+                ByteBuffer.wrap(page, tailStart, length - tailStart));
+    }
+
+    /**
+     * Проверяет начало и конец файла.
+     *
+     * @param head Начало файла
+     * @param tail Конец файла
+     * @return Причина отказа или пустое значение
+     */
+    private static Optional<String> rejectionReason(ByteBuffer head, ByteBuffer tail) {
+        boolean signed = false;
+        for (byte[] signature : SIGNATURES) {
+            if (contains(head, signature, false)) {
+                signed = true;
+                break;
+            }
+        }
+        if (!signed) {
+            return Optional.of("Not an elibrary.ru publication list");
+        }
+        if (!contains(head, TABLE, true)) {
+            return Optional.of("Publication table not found");
+        }
+        if (!contains(tail, HTML_END, true)) {
+            return Optional.of("File appears to be truncated");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Читает участок файла.
+     *
+     * @param channel  Канал файла
+     * @param position Смещение от начала файла
+     * @param length   Количество байт
+     * @return Прочитанные байты, готовые к чтению
+     * @throws IOException Если файл не удалось прочитать
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) break;
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Ищет последовательность байт в оставшейся части буфера.
+     *
+     * @param haystack        Буфер, в котором выполняется поиск
+     * @param needle          Искомая последовательность
+     * @param ignoreAsciiCase Игнорировать ли регистр латинских букв
+     * @return true, если последовательность найдена
+     */
+    private static boolean contains(ByteBuffer haystack, byte[] needle, boolean ignoreAsciiCase) {
+        int end = haystack.limit() - needle.length;
+        for (int i = haystack.position(); i <= end; i++) {
+            int j = 0;
+            while (j < needle.length && matches(haystack.get(i + j), needle[j], ignoreAsciiCase)) {
+                j++;
+            }
+            if (j == needle.length) return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(byte actual, byte expected, boolean ignoreAsciiCase) {
+        if (actual == expected) return true;
+        return ignoreAsciiCase && actual >= 'A' && actual <= 'Z' && actual + ('a' - 'A') == expected;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -3,25 +3,36 @@ package com.elibrary.elibrary;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import org.apache.poi.xwpf.usermodel.*;
-
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Класс ELibraryFileWriter управляет записью проанализированных данных электронной библиотеки в документ Word.
  * Он предоставляет функциональность для создания файла .docx, содержащего информацию об авторах, их статьях,
  * и связанных с ними деталях.
+ * <p>
+ * Каждый вызов {@link #write(List, OutputStream)} и {@link #write(List, Path)} формирует новый
+ * {@link ReportDocument}, поэтому один экземпляр можно использовать повторно и из нескольких потоков.
+ * Оформление информации об авторах задаётся шаблоном {@link ReportTemplate} ({@link #setTemplate(ReportTemplate)});
+ * {@link #writeTemplates(Iterable, Map)} записывает по одним и тем же авторам несколько отчётов
+ * по разным шаблонам параллельно.
  */
 public class ELibraryFileWriter {
     private static final Logger LOGGER = LogManager.getLogger(ELibraryFileWriter.class);
     private final ELibraryParser libraryParser;
     private String outputFileName;
-    private final XWPFDocument document = new XWPFDocument();
-    private XWPFParagraph paragraph;
-    private XWPFRun run;
+    private AuthorMetric rankingMetric;
+    private int rankingSize;
+    private ReportTemplate template;
 
 
     /**
@@ -33,6 +44,14 @@ public class ELibraryFileWriter {
         this.libraryParser = libraryParser;
     }
 
+    /**
+     * Создает ELibraryFileWriter без привязки к парсеру.
+     * Авторы передаются в {@link #write(List, OutputStream)} или {@link #write(List, Path)}.
+     */
+    public ELibraryFileWriter() {
+        this(null);
+    }
+
     /**
      * Записывает проанализированные данные в файл в указанном выходном каталоге.
      *
@@ -44,195 +63,187 @@ public class ELibraryFileWriter {
             outputFileName = "Output";
             LOGGER.debug("Output file name out of format. (" + outputFileName + ") - auto create)");
         }
-        writeAllInformation();
-        writeToFile(outputPath);
-    }
-
-
-    /**
-     * Задает имя выходного файла.
-     *
-     * @param fileName Имя выходного файла.
-     */
-    public void setOutputFileName(String fileName) {
-        this.outputFileName = fileName;
-    }
-
-    /**
-     * Создает новый абзац и инициализирует новый текстовый блок с настройками шрифта по умолчанию.
-     * <p>
-     * Шрифт по умолчанию установлен как "Times New Roman", размер шрифта - 14.
-     */
-    private void createNewParagraph() {
-        paragraph = document.createParagraph();
-        run = paragraph.createRun();
-        run.setFontFamily("TimesNewRoman");
-        run.setFontSize(14);
+        write(libraryParser.getArrayAuthors(), Path.of(outputPath, outputFileName + ".docx"));
     }
 
     /**
-     * Записывает имя автора в документ, выделяя его жирным шрифтом и устанавливая центрирование.
+     * Записывает отчёт по авторам в файл.
      *
-     * @param author Автор, чье имя будет записано в документ.
+     * @param authors    Авторы, информацию о которых необходимо записать.
+     * @param outputFile Путь к выходному файлу .docx.
+     * @throws IOException если записываемый файл пустой или при ошибке открытия (создания) файла
      */
-    private void writeAuthorName(Author author) {
-        createNewParagraph();
-        paragraph.setAlignment(ParagraphAlignment.CENTER);
-        run.setBold(true);
-        run.setFontSize(18);
-        run.setText(author.getName());
+    public void write(Iterable<Author> authors, Path outputFile) throws IOException {
+        write(authors, List.of(), outputFile);
     }
 
     /**
-     * Записывает заголовок статьи в документ, добавляя нижнюю границу, делая текст жирным и устанавливая размер шрифта.
+     * Записывает в файл отчёт по авторам и раздел изменений по сравнению с предыдущим снимком.
      *
-     * @param article Статья, заголовок которой будет записан в документ.
+     * @param authors    Авторы, информацию о которых необходимо записать.
+     * @param deltas     Изменения, полученные {@link AuthorSnapshotDiff}; пустой список - без раздела изменений.
+     * @param outputFile Путь к выходному файлу .docx.
+     * @throws IOException если записываемый файл пустой или при ошибке открытия (создания) файла
      */
-    private void writeArticleTitle(ArticleWithZeroCitations article) {
-        createNewParagraph();
-        paragraph.setBorderBottom(Borders.APPLES);
-        run.setBold(true);
-        run.setFontSize(14);
-        run.setText(article.title());
+    public void write(Iterable<Author> authors, List<AuthorDelta> deltas, Path outputFile) throws IOException {
+        write(authors, deltas, template, outputFile);
     }
 
     /**
-     * Записывает совместных авторов статьи в документ, устанавливая размер шрифта для текста.
+     * Записывает в файл отчёт по заданному шаблону.
      *
-     * @param article Статья, совместные авторы которой будут записаны в документ.
+     * @param authors    Авторы, информацию о которых необходимо записать.
+     * @param deltas     Изменения по сравнению с предыдущим снимком
+     * @param template   Шаблон отчёта или null для оформления по умолчанию
+     * @param outputFile Путь к выходному файлу .docx.
+     * @throws IOException если записываемый файл пустой или при ошибке открытия (создания) файла
      */
-    private void writeJointsAuthors(ArticleWithZeroCitations article) {
-        createNewParagraph();
-        run.setFontSize(12);
-        run.setText(article.jointAuthors());
+    private void write(Iterable<Author> authors, List<AuthorDelta> deltas, ReportTemplate template, Path outputFile)
+            throws IOException {
+        try (ReportDocument document = render(authors, deltas, template);
+             OutputStream fileOut = Files.newOutputStream(outputFile)) {
+            document.write(fileOut);
+            LOGGER.info("The file was successfully written: " + outputFile);
+        }
     }
 
-
     /**
-     * Записывает место публикации статьи в документ, устанавливая размер шрифта для текста.
+     * Записывает по одним и тем же авторам несколько отчётов, каждый по своему шаблону.
+     * Шаблоны уже скомпилированы, поэтому на каждый отчёт приходится только применение плана шаблона;
+     * отчёты формируются параллельно, по потоку на шаблон, но не больше, чем доступно процессоров.
+     * Авторы только читаются, поэтому их можно обходить из нескольких потоков.
      *
-     * @param article Статья, место публикации которой будет записано в документ.
+     * @param authors Авторы, информацию о которых необходимо записать.
+     * @param reports Шаблон для каждого выходного файла .docx
+     * @throws IOException если один из документов пустой или при ошибке записи файла
      */
-    private void writePlaceOfPublication(ArticleWithZeroCitations article) {
-        createNewParagraph();
-        run.setFontSize(12);
-        run.setText(article.placeOfPublication());
+    public void writeTemplates(Iterable<Author> authors, Map<Path, ReportTemplate> reports) throws IOException {
+        if (reports.isEmpty()) return;
+        int threads = Math.min(reports.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(reports.size());
+            for (Map.Entry<Path, ReportTemplate> report : reports.entrySet()) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        write(authors, List.of(), report.getValue(), report.getKey());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IllegalStateException && cause.getCause() instanceof IOException io) {
+                        throw io;
+                    }
+                    throw new IOException("Failed to write report", cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while writing reports", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
-     * Записывает место работы автора в документ, устанавливая выравнивание по центру и размер шрифта для текста.
-     * Также добавляет разрыв после записи.
+     * Записывает отчёт по авторам в поток. Поток не закрывается.
      *
-     * @param author Автор, место работы которого будет записано в документ.
+     * @param authors Авторы, информацию о которых необходимо записать.
+     * @param out     Поток, в который будет записан документ .docx.
+     * @throws IOException если документ пустой или при ошибке записи в поток
      */
-    private void writePlaceOfWork(Author author) {
-        createNewParagraph();
-        paragraph.setAlignment(ParagraphAlignment.CENTER);
-        run.setFontSize(12);
-        run.setText(author.getPlaceOfWork());
-        run.addBreak();
+    public void write(Iterable<Author> authors, OutputStream out) throws IOException {
+        write(authors, List.of(), out);
     }
 
     /**
-     * Записывает индекс Хирша автора в документ, делая текст жирным.
+     * Записывает в поток отчёт по авторам и раздел изменений по сравнению с предыдущим снимком.
+     * Поток не закрывается.
      *
-     * @param author Автор, индекс Хирша которого будет записан в документ.
+     * @param authors Авторы, информацию о которых необходимо записать.
+     * @param deltas  Изменения, полученные {@link AuthorSnapshotDiff}; пустой список - без раздела изменений.
+     * @param out     Поток, в который будет записан документ .docx.
+     * @throws IOException если документ пустой или при ошибке записи в поток
      */
-    private void writeIndexH(Author author) {
-        createNewParagraph();
-        run.setBold(true);
-        run.setText("Индекс Хирша: " + author.getIndexH());
-    }
-
-    private void writeNumberOfPublications(Author author) {
-        createNewParagraph();
-        run.setBold(true);
-        run.setText("Количество статей: " + author.getNumberOfPublications());
+    public void write(Iterable<Author> authors, List<AuthorDelta> deltas, OutputStream out) throws IOException {
+        try (ReportDocument document = render(authors, deltas, template)) {
+            document.write(out);
+        }
     }
 
     /**
-     * Записывает количество статей с нулевым цитированием автора в документ, делая текст жирным.
+     * Формирует новый документ с отчётом по авторам.
+     * Авторы обходятся один раз: рейтинги собираются во время записи авторов, а раздел рейтинга записывается после них.
      *
-     * @param author Автор, для которого будет записано количество статей с нулевым цитированием.
-     */
-    private void writeNumberOfZeroCitations(Author author) {
-        createNewParagraph();
-        run.setBold(true);
-        run.setText("Количество статей с нулевым цитированием: " + author.getNumberOfZeroCitations());
-    }
-
-    /**
-     * Записывает информацию об авторах и их статьях в документ.
-     * Использует {@link #writeAuthorInformation(Author)}
+     * @param authors  Авторы, информацию о которых необходимо записать.
+     * @param deltas   Изменения по сравнению с предыдущим снимком
+     * @param template Шаблон отчёта или null для оформления по умолчанию
+     * @return Заполненный документ
+     * @throws IOException если документ получился пустым или не удалось прочитать шаблон
      */
-    private void writeAllInformation() {
-        for (Author author : libraryParser.getArrayAuthors()) {
-            writeAuthorInformation(author);
-            writeArticlesInformation(author);
-            run.addBreak(BreakType.PAGE);
+    private ReportDocument render(Iterable<Author> authors, List<AuthorDelta> deltas, ReportTemplate template)
+            throws IOException {
+        ReportDocument document = template != null ? new ReportDocument(template) : new ReportDocument();
+        if (rankingMetric == null) {
+            document.writeAllInformation(authors, author -> {
+            });
+        } else {
+            AuthorRanking.Accumulator ranking = new AuthorRanking.Accumulator(rankingMetric, rankingSize);
+            document.writeAllInformation(authors, ranking::add);
+            if (!ranking.isEmpty()) {
+                document.writeRankingSection(rankingMetric, ranking.top(), ranking.topByOrganization());
+            }
         }
+        if (!deltas.isEmpty()) {
+            document.writeDeltaSection(deltas);
+        }
+        if (document.isEmpty()) {
+            document.close();
+            LOGGER.error("The file could not be written. There is a problem with the input files.");
+            throw new IOException("File is empty");
+        }
+        return document;
     }
 
-    /**
-     * Записывает информацию о конкретном авторе в документ.
-     *
-     * @param author Автор, информацию о котором необходимо записать.
-     */
-    private void writeAuthorInformation(Author author) {
-        writeAuthorName(author);
-        writePlaceOfWork(author);
-        writeIndexH(author);
-        writeNumberOfPublications(author);
-        writeNumberOfZeroCitations(author);
-        run.addBreak(BreakType.TEXT_WRAPPING);
-    }
 
     /**
-     * Записывает информацию о статьях автора в документ.
+     * Задает имя выходного файла.
      *
-     * @param author Автор, статьи которого необходимо записать.
+     * @param fileName Имя выходного файла.
      */
-    private void writeArticlesInformation(Author author) {
-        for (ArticleWithZeroCitations article : author.getArticles()) {
-            writeArticleTitle(article);
-            writeJointsAuthors(article);
-            writePlaceOfPublication(article);
-            run.addBreak(BreakType.TEXT_WRAPPING);
-        }
+    public void setOutputFileName(String fileName) {
+        this.outputFileName = fileName;
     }
 
     /**
-     * Записывает содержимое документа в файл.
+     * Включает в отчёт раздел с рейтингом авторов: общий рейтинг и рейтинги по организациям.
+     * Настройку следует выполнять до использования экземпляра из нескольких потоков.
      *
-     * @param outputPath Путь, по которому необходимо сохранить файл.
-     * @throws IOException Если возникают проблемы при записи в файл.
+     * @param metric Показатель рейтинга; null - без раздела рейтинга
+     * @param count  Количество авторов в каждом рейтинге
      */
-    private void writeToFile(String outputPath) throws IOException {
-        try (OutputStream fileOut = new FileOutputStream(outputPath + "\\" + outputFileName + ".docx")) {
-            if (!documentIsEmpty()) {
-                document.write(fileOut);
-                LOGGER.info("The file was successfully written: " + outputPath + "\\" + outputFileName + ".docx");
-            } else {
-                LOGGER.error("The file could not be written. There is a problem with the input files.");
-                throw new IOException("File is empty");
-            }
+    public void setRanking(AuthorMetric metric, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
         }
+        this.rankingMetric = metric;
+        this.rankingSize = count;
     }
 
     /**
-     * Проверяет, пуст ли документ.
+     * Задаёт шаблон, по которому записывается информация об авторах.
+     * Настройку следует выполнять до использования экземпляра из нескольких потоков.
      *
-     * @return true, если документ пуст, в противном случае - false.
+     * @param template Скомпилированный шаблон; null - оформление по умолчанию
      */
-    private boolean documentIsEmpty() {
-        for (XWPFParagraph paragraph : document.getParagraphs()) {
-            for (XWPFRun run : paragraph.getRuns()) {
-                if (run.getText(run.getTextPosition()) == null && run.getText(run.getTextPosition()).isEmpty()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public void setTemplate(ReportTemplate template) {
+        this.template = template;
     }
 
     /**
@@ -1,23 +1,32 @@
 package com.elibrary.elibrary;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -26,6 +35,14 @@ import java.util.List;
  */
 public class ELibraryGUI extends Application {
     private static final Logger LOGGER = LogManager.getLogger(ELibraryGUI.class);
+    /**
+     * Период обновления панели хода парсинга.
+     */
+    private static final Duration DASHBOARD_PERIOD = Duration.millis(500);
+    /**
+     * Максимальное количество статей в результатах поиска.
+     */
+    private static final int SEARCH_LIMIT = 200;
     /**
      * Список выбранных файлов.
      */
@@ -45,6 +62,25 @@ public class ELibraryGUI extends Application {
      * Текст из формы для имени выходного файла.
      */
     private static TextField inputTextField;
+    private static Button startButton;
+    /**
+     * Панель хода парсинга: скорость, время разбора, очереди и память.
+     */
+    private static Label dashboardLabel;
+    /**
+     * Самые медленные файлы текущего запуска.
+     */
+    private static ListView<String> slowestFilesView;
+    private static Timeline dashboardTimeline;
+    private static ParseStatistics statistics;
+    private static long lastSampleNanos;
+    private static long lastSampleFinished;
+    /**
+     * Полнотекстовый индекс статей последнего запуска.
+     */
+    private static ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+    private static TextField searchTextField;
+    private static ListView<String> searchResultsView;
 
     /**
      * Входная точка в класс. Пишется лог о старте программы
@@ -61,7 +97,8 @@ public class ELibraryGUI extends Application {
      * Метод start инициализирует и отображает графический интерфейс приложения.
      * Здесь происходит настройка окна, добавление компонентов (кнопок, текстовых полей и меток),
      * установка обработчиков событий для кнопок и настройка стилей окна.
-     * При нажатии на кнопку запускает парсер {@link #startELibrary()}
+     * При нажатии на кнопку запускает парсер {@link #startELibrary(Path)}
+     * После показа окна запускает фоновый прогрев Jsoup и POI ({@link ELibraryWarmup#startInBackground()}).
      *
      * @param primaryStage Сцена (окно), в котором будет отображаться графический интерфейс.
      */
@@ -71,19 +108,24 @@ public class ELibraryGUI extends Application {
         Button selectFilesButton = createSelectFilesButton(primaryStage);
         Button selectDirectoryButton = createSelectDirectoryButton(primaryStage);
         createInputTextField();
-        Button startButton = createStartButton();
+        startButton = createStartButton();
         createSelectedFilesLabel();
         createSelectedDirectoryLabel();
+        createDashboard();
+        createSearchPanel();
         VBox layout = createLayout();
 
         layout.getChildren().addAll(selectFilesButton,
                 selectDirectoryButton,
                 inputTextField,
                 startButton, selectedFilesLabel,
-                selectedDirectoryLabel);
+                selectedDirectoryLabel,
+                dashboardLabel, slowestFilesView,
+                searchTextField, searchResultsView);
 
         initScene(primaryStage, layout);
         primaryStage.show();
+        ELibraryWarmup.startInBackground();
     }
 
     /**
@@ -102,12 +144,23 @@ public class ELibraryGUI extends Application {
      * Метод startButtonHandler представляет обработчик события для кнопки "Старт".
      * Извлекает текст из текстового поля inputTextField и инициирует процесс парсинга,
      * если введенные данные прошли валидацию, иначе отображает предупреждение.
+     * Если из имени файла нельзя составить путь, отображается сообщение об ошибке.
      */
     private void startButtonHandler() {
         fileName = inputTextField.getText();
-        if (validateInputs()) {
-            startELibrary();
-        } else showWarning();
+        if (!validateInputs()) {
+            showWarning();
+            return;
+        }
+        Path outputFile;
+        try {
+            outputFile = Path.of(selectedDirectory.getPath(), fileName + ".docx");
+        } catch (InvalidPathException e) {
+            LOGGER.warn("Invalid output file name: " + fileName);
+            showInvalidFileName();
+            return;
+        }
+        startELibrary(outputFile);
     }
 
     /**
@@ -170,6 +223,83 @@ public class ELibraryGUI extends Application {
         selectedDirectoryLabel = new Label("Выбранная директория:");
     }
 
+    /**
+     * Создает панель хода парсинга. Панель скрыта до первого запуска.
+     */
+    private void createDashboard() {
+        dashboardLabel = new Label();
+        slowestFilesView = new ListView<>();
+        slowestFilesView.setPrefHeight(120);
+        setDashboardVisible(false);
+        dashboardTimeline = new Timeline(new KeyFrame(DASHBOARD_PERIOD, e -> updateDashboard()));
+        dashboardTimeline.setCycleCount(Animation.INDEFINITE);
+    }
+
+    private void setDashboardVisible(boolean visible) {
+        dashboardLabel.setVisible(visible);
+        dashboardLabel.setManaged(visible);
+        slowestFilesView.setVisible(visible);
+        slowestFilesView.setManaged(visible);
+    }
+
+    /**
+     * Обновляет панель хода парсинга по счётчикам {@link ParseStatistics}.
+     * Вызывается в потоке JavaFX по таймеру и только читает счётчики, не задерживая потоки парсера.
+     */
+    private void updateDashboard() {
+        long now = System.nanoTime();
+        long finished = statistics.getFinished();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        double filesPerSecond = seconds > 0 ? (finished - lastSampleFinished) / seconds : 0;
+        lastSampleNanos = now;
+        lastSampleFinished = finished;
+        Runtime runtime = Runtime.getRuntime();
+        long usedMegabytes = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        dashboardLabel.setText(String.format(
+                "Разобрано файлов: %d из %d (ошибок: %d)%nСкорость: %.1f файлов/с%n"
+                        + "Среднее время разбора файла: %.1f мс%nВ очереди: %d, в работе: %d%n"
+                        + "Память: %d из %d МБ",
+                finished, statistics.getSubmitted(), statistics.getFailed(), filesPerSecond,
+                finished == 0 ? 0.0 : statistics.getParseNanos() / 1e6 / finished,
+                statistics.getQueued(), statistics.getRunning(),
+                usedMegabytes, runtime.maxMemory() / (1024 * 1024)));
+        List<String> slowest = new ArrayList<>();
+        for (ParseStatistics.SlowFile file : statistics.getSlowest()) {
+            slowest.add(String.format("%d мс - %s", file.nanos() / 1_000_000, new File(file.source()).getName()));
+        }
+        slowestFilesView.getItems().setAll(slowest);
+    }
+
+    /**
+     * Создает поле поиска по статьям и список результатов.
+     * Поиск выполняется по нажатию Enter в индексе {@link #searchIndex}, в том числе во время парсинга.
+     */
+    private void createSearchPanel() {
+        searchTextField = new TextField();
+        searchTextField.setPromptText("Поиск по статьям");
+        searchTextField.setPrefColumnCount(20);
+        searchTextField.setOnAction(e -> runSearch());
+        searchResultsView = new ListView<>();
+        searchResultsView.setPrefHeight(150);
+    }
+
+    /**
+     * Выполняет запрос из поля поиска и показывает найденные статьи.
+     */
+    private void runSearch() {
+        String query = searchTextField.getText();
+        List<ArticleSearchIndex.Hit> hits = searchIndex.search(query, SEARCH_LIMIT);
+        LOGGER.debug("Search query \"" + query + "\" found " + hits.size() + " articles");
+        List<String> items = new ArrayList<>(hits.size() + 1);
+        if (hits.isEmpty()) {
+            items.add("Ничего не найдено");
+        }
+        for (ArticleSearchIndex.Hit hit : hits) {
+            items.add(hit.author() + ": " + hit.article().title() + " (" + hit.article().placeOfPublication() + ")");
+        }
+        searchResultsView.getItems().setAll(items);
+    }
+
     /**
      * Инициализирует сцену и настраивает основное окно приложения.
      *
@@ -183,7 +313,7 @@ public class ELibraryGUI extends Application {
         primaryStage.setMinWidth(260);  // Устанавливаем минимальную ширину окна
         primaryStage.setMinHeight(350); // Устанавливаем минимальную высоту окна
         primaryStage.setWidth(500);      // Устанавливаем начальную ширину окна
-        primaryStage.setHeight(400);     // Устанавливаем начальную высоту окна
+        primaryStage.setHeight(750);     // Устанавливаем начальную высоту окна
         primaryStage.setResizable(true); // Разрешаем изменение размеров окна
     }
 
@@ -298,6 +428,18 @@ public class ELibraryGUI extends Application {
         alert.showAndWait();
     }
 
+    /**
+     * Метод showInvalidFileName отображает сообщение об ошибке, если имя файла содержит недопустимые символы.
+     */
+    private void showInvalidFileName() {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Ошибка");
+        alert.setHeaderText(null);
+        alert.setContentText("Имя файла содержит недопустимые символы!");
+
+        alert.showAndWait();
+    }
+
     /**
      * Метод showError отображает сообщение об ошибке в виде диалогового окна.
      */
@@ -312,66 +454,123 @@ public class ELibraryGUI extends Application {
 
     /**
      * Метод showInformation отображает информационное сообщение в виде диалогового окна.
-     * Сообщение включает информацию об успешной записи файла в указанную директорию.
+     * Сообщение включает информацию об успешной записи файла в указанную директорию
+     * и список файлов, которые не удалось разобрать полностью.
+     *
+     * @param result     - результат парсинга {@link ELibraryParseResult}
+     * @param outputFile - путь к записанному файлу
      */
-    private void showInformation() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+    private void showInformation(ELibraryParseResult result, Path outputFile) {
+        StringBuilder text = new StringBuilder("Файл успешно записан в директорию:\n")
+                .append(outputFile.toAbsolutePath().getParent())
+                .append("\nс именем файла: ").append(outputFile.getFileName());
+        for (ParseOutcome outcome : result.problems()) {
+            text.append(outcome.status() == ParseOutcome.Status.FAILED ? "\n\nНе удалось разобрать: "
+                            : "\n\nРазобран частично: ")
+                    .append(new File(outcome.source()).getName());
+            for (String reason : outcome.reasons()) {
+                text.append("\n - ").append(reason);
+            }
+        }
+        Alert alert = new Alert(result.problems().isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING);
         alert.setTitle("Информация");
         alert.setHeaderText(null);
-        alert.setContentText("Файл успешно записан в директорию:\n" + selectedDirectory.getAbsolutePath() +
-                "\nс именем файла: " + fileName + ".docx");
+        alert.setContentText(text.toString());
 
         alert.showAndWait();
     }
 
     /**
      * Метод startELibrary отвечает за запуск процесса парсинга данных электронной библиотеки и запись результатов в файл.
-     * Для этого метод создает экземпляр парсера электронной библиотеки {@link ELibraryParser},
-     * добавляет выбранные файлы в качестве входных,
-     * выполняет парсинг, создает объект для записи файлов, устанавливает имя выходного файла, записывает результаты
-     * и отображает информационное сообщение об успешной записи, затем очищает входные данные.
+     * Парсинг и запись выполняются в фоновом потоке, чтобы окно оставалось отзывчивым; на это время
+     * кнопка "Старт" блокируется, а панель хода парсинга обновляется по таймеру {@link #DASHBOARD_PERIOD}.
+     * По завершении отображается информационное сообщение об успешной записи, затем очищаются входные данные.
+     *
+     * @param outputFile Файл отчёта
      */
-    private void startELibrary() {
+    private void startELibrary(Path outputFile) {
         LOGGER.info("Starting to parse");
-
+        List<String> paths = collectPaths();
+        statistics = new ParseStatistics();
         ELibraryParser parser = new ELibraryParser();
+        parser.setStatistics(statistics);
+        searchIndex = new ArticleSearchIndex();
+        parser.setSearchIndex(searchIndex);
+        searchResultsView.getItems().clear();
+
+        startButton.setDisable(true);
+        lastSampleNanos = System.nanoTime();
+        lastSampleFinished = 0;
+        setDashboardVisible(true);
+        updateDashboard();
+        dashboardTimeline.play();
+
+        Thread worker = new Thread(() -> {
+            ELibraryParseResult result = null;
+            boolean written = false;
+            try {
+                result = parser.parse(paths);
+                written = writeToFile(result, outputFile);
+            } catch (Throwable e) {
+                LOGGER.error("The run failed", e);
+            } finally {
+                ELibraryParseResult finishedResult = result;
+                boolean finishedWritten = written;
+                Platform.runLater(() -> finishRun(finishedResult, outputFile, finishedWritten));
+            }
+        }, "elibrary-run");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-        addPaths(parser);
-        parser.parse();
-        writeToFile(parser);
+    /**
+     * Завершает запуск в потоке JavaFX: останавливает обновление панели и показывает результат.
+     *
+     * @param result     - результат парсинга {@link ELibraryParseResult}; null, если запуск завершился ошибкой
+     * @param outputFile - путь к выходному файлу
+     * @param written    - удалось ли записать файл
+     */
+    private void finishRun(ELibraryParseResult result, Path outputFile, boolean written) {
+        dashboardTimeline.stop();
+        updateDashboard();
+        startButton.setDisable(false);
+        if (written) {
+            showInformation(result, outputFile);
+            clearAllInputs();
+        } else {
+            showError();
+        }
     }
 
     /**
-     * Добавляет пути до входных файлов в класс парсера
+     * Собирает пути до выбранных входных файлов
      *
-     * @param parser - объект класса {@link ELibraryParser}
+     * @return Список путей до входных файлов
      */
-    private void addPaths(ELibraryParser parser) {
+    private List<String> collectPaths() {
+        List<String> paths = new ArrayList<>();
         for (File file : selectedFiles) {
-            parser.addInputPath(file.getPath());
+            paths.add(file.getPath());
         }
+        return paths;
     }
 
     /**
-     * Запускает процесс записи информации из парсера в файл.
-     * При возникновении ошибки записи выскакивает предупреждение.
+     * Записывает результаты парсинга в файл. Вызывается в фоновом потоке.
      *
-     * @param parser - объект класса {@link ELibraryParser}
+     * @param result     - результат парсинга {@link ELibraryParseResult}
+     * @param outputFile - путь к выходному файлу
+     * @return true, если файл записан
      */
-    private void writeToFile(ELibraryParser parser) {
+    private boolean writeToFile(ELibraryParseResult result, Path outputFile) {
         LOGGER.info("The beginning of the report recording procedure");
         try {
-            ELibraryFileWriter eLibraryFileWriter = new ELibraryFileWriter(parser);
-            eLibraryFileWriter.setOutputFileName(fileName);
-            eLibraryFileWriter.write(selectedDirectory.getPath());
-            showInformation();
-            clearAllInputs();
-
+            ELibraryFileWriter eLibraryFileWriter = new ELibraryFileWriter();
+            eLibraryFileWriter.write(result.authors(), outputFile);
+            return true;
         } catch (IOException e) {
             LOGGER.error("The file could not be written");
-            showError();
+            return false;
         }
     }
 }
-
-
@@ -0,0 +1,117 @@
+package com.elibrary.elibrary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Класс ELibraryJsonWriter записывает проанализированные данные электронной библиотеки в формате JSON.
+ * Не хранит состояния между вызовами и может использоваться из нескольких потоков.
+ */
+public class ELibraryJsonWriter {
+
+    /**
+     * Записывает авторов и их статьи в поток в кодировке UTF-8. Поток не закрывается.
+     *
+     * @param authors Авторы, информацию о которых необходимо записать.
+     * @param out     Поток, в который будет записан JSON.
+     * @throws IOException При ошибке записи в поток.
+     */
+    public void write(List<Author> authors, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("{\"authors\":[");
+        for (int i = 0; i < authors.size(); i++) {
+            if (i > 0) writer.write(',');
+            writeAuthor(writer, authors.get(i));
+        }
+        writer.write("]}");
+        writer.flush();
+    }
+
+    /**
+     * Записывает одного автора.
+     *
+     * @param writer Поток для записи
+     * @param author Автор
+     * @throws IOException При ошибке записи в поток.
+     */
+    private void writeAuthor(Writer writer, Author author) throws IOException {
+        writer.write("{\"name\":");
+        writeString(writer, author.getName());
+        writer.write(",\"placeOfWork\":");
+        writeString(writer, author.getPlaceOfWork());
+        if (author.getAuthorId() > 0) writer.write(",\"authorId\":" + author.getAuthorId());
+        writer.write(",\"indexH\":" + author.getIndexH());
+        writer.write(",\"numberOfPublications\":" + author.getNumberOfPublications());
+        writer.write(",\"numberOfZeroCitations\":" + author.getNumberOfZeroCitations());
+        writer.write(",\"articles\":[");
+        List<ArticleWithZeroCitations> articles = author.getArticles();
+        for (int i = 0; i < articles.size(); i++) {
+            if (i > 0) writer.write(',');
+            writeArticle(writer, articles.get(i));
+        }
+        writer.write("]}");
+    }
+
+    /**
+     * Записывает одну статью.
+     *
+     * @param writer  Поток для записи
+     * @param article Статья
+     * @throws IOException При ошибке записи в поток.
+     */
+    private void writeArticle(Writer writer, ArticleWithZeroCitations article) throws IOException {
+        writer.write("{\"title\":");
+        writeString(writer, article.title());
+        writer.write(",\"jointAuthors\":");
+        writeString(writer, article.jointAuthors());
+        writer.write(",\"placeOfPublication\":");
+        writeString(writer, article.placeOfPublication());
+        PublicationVenue venue = article.venue();
+        writer.write(",\"journal\":");
+        writeString(writer, venue.journal());
+        writer.write(",\"year\":" + venue.year());
+        writer.write(",\"volume\":");
+        writeString(writer, venue.volume());
+        writer.write(",\"issue\":");
+        writeString(writer, venue.issue());
+        writer.write(",\"pages\":");
+        writeString(writer, venue.pages());
+        writer.write(",\"citations\":" + article.citations());
+        writer.write('}');
+    }
+
+    /**
+     * Записывает строку в кавычках, экранируя специальные символы.
+     *
+     * @param writer Поток для записи
+     * @param value  Строка, может быть null
+     * @throws IOException При ошибке записи в поток.
+     */
+    private void writeString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) writer.write(String.format("\\u%04x", (int) c));
+                    else writer.write(c);
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -1,17 +1,247 @@
 package com.elibrary.elibrary;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+
 /**
  * Класс ELibraryLauncher предназначен для запуска приложения электронной библиотеки.
  * Он содержит метод main, который является входной точкой приложения.
  */
 public class ELibraryLauncher {
+    /**
+     * Максимальное количество статей, выводимых по запросу {@code --search}
+     */
+    private static final int SEARCH_LIMIT = 100;
+    /**
+     * Порт HTTP-сервиса, если он не указан после {@code --server}
+     */
+    private static final int DEFAULT_PORT = 8080;
 
     /**
-     * Метод main представляет точку входа для приложения. Использует {@link ELibraryGUI#main(String[])}
+     * Метод main представляет точку входа для приложения. Использует {@link ELibraryGUI#main(String[])}.
+     * С аргументом {@code --server [порт]} вместо графического интерфейса запускает {@link ELibraryReportServer}
+     * на локальном адресе.
+     * С аргументами {@code --snapshot <снимок> <файлы...>} сохраняет снимок {@link AuthorSnapshot}
+     * и рядом с ним - полнотекстовый индекс статей {@link ArticleSearchIndex} ({@code <снимок>.index}),
+     * с аргументами {@code --search <индекс> <запрос...>} выводит статьи, найденные по индексу,
+     * с аргументами {@code --diff <старый снимок> <новый снимок> <отчёт.docx>} записывает отчёт об изменениях.
+     * Аргументы {@code --report <отчёт.docx> <бюджет кучи, МБ> <файлы...>} записывают отчёт по большому набору
+     * файлов, выгружая авторов сверх бюджета в {@link SpillingAuthorStore}.
+     * Аргументы {@code --templates <каталог отчётов> <шаблоны.docx через запятую> <файлы...>} записывают
+     * по одним и тем же авторам отчёт по каждому шаблону {@link ReportTemplate}.
+     * Аргументы {@code --cds-training <директория>} выполняют обучающий запуск для архива AppCDS
+     * ({@link ELibraryWarmup#train(Path)}).
+     * Перед {@code --report} и {@code --templates} можно указать {@code --ranking <показатель> <K>}: в отчёт
+     * добавляется раздел с K лучшими авторами по показателю {@link AuthorMetric}
+     * ({@code index_h}, {@code publications}, {@code zero_citations}, {@code citations}).
      *
      * @param args Массив строковых аргументов, передаваемых при запуске приложения.
+     * @throws IOException Если не удалось запустить сервер, прочитать или записать файлы
+     */
+    public static void main(String[] args) throws IOException {
+        ELibraryFileWriter fileWriter = new ELibraryFileWriter();
+        if (args.length > 0 && args[0].equals("--ranking")) {
+            if (args.length < 3 || !setRanking(fileWriter, args[1], args[2])) {
+                System.err.println("Usage: --ranking <index_h|publications|zero_citations|citations> <count> "
+                        + "--report|--templates ...");
+                return;
+            }
+            args = Arrays.copyOfRange(args, 3, args.length);
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            OptionalInt port = args.length > 1 ? parsePort(args[1]) : OptionalInt.of(DEFAULT_PORT);
+            if (port.isEmpty()) {
+                System.err.println("Invalid port: " + args[1]);
+                System.err.println("Usage: --server [port], where port is a number from 0 to 65535");
+                return;
+            }
+            startServer(port.getAsInt());
+        } else if (args.length > 2 && args[0].equals("--snapshot")) {
+            writeSnapshot(Path.of(args[1]), Arrays.asList(args).subList(2, args.length));
+        } else if (args.length > 2 && args[0].equals("--search")) {
+            search(Path.of(args[1]), String.join(" ", Arrays.asList(args).subList(2, args.length)));
+        } else if (args.length == 4 && args[0].equals("--diff")) {
+            writeDiff(Path.of(args[1]), Path.of(args[2]), Path.of(args[3]));
+        } else if (args.length > 3 && args[0].equals("--report")) {
+            OptionalLong heapBudget = parseMegabytes(args[2]);
+            if (heapBudget.isEmpty()) {
+                System.err.println("Invalid heap budget: " + args[2]);
+                System.err.println("Usage: --report <report.docx> <heap budget, MB> <files...>, "
+                        + "where the budget is a non-negative number of megabytes");
+                return;
+            }
+            writeReport(fileWriter, Path.of(args[1]), heapBudget.getAsLong(),
+                    Arrays.asList(args).subList(3, args.length));
+        } else if (args.length > 3 && args[0].equals("--templates")) {
+            writeTemplateReports(fileWriter, Path.of(args[1]), Arrays.asList(args[2].split(",")),
+                    Arrays.asList(args).subList(3, args.length));
+        } else if (args.length == 2 && args[0].equals("--cds-training")) {
+            ELibraryWarmup.train(Path.of(args[1]));
+        } else {
+            ELibraryGUI.main(args);
+        }
+    }
+
+    /**
+     * Разбирает файлы со всеми статьями авторов и сохраняет снимок.
+     *
+     * @param snapshot   Файл снимка
+     * @param inputPaths Пути к HTML-файлам или архивам
+     * @throws IOException Если не удалось записать снимок
+     */
+    private static void writeSnapshot(Path snapshot, List<String> inputPaths) throws IOException {
+        ELibraryParser parser = new ELibraryParser(ArticleFilter.all());
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        parser.setSearchIndex(index);
+        ELibraryParseResult result = parser.parse(inputPaths);
+        AuthorSnapshot.write(result.authors(), snapshot);
+        Path indexFile = snapshot.resolveSibling(snapshot.getFileName() + ".index");
+        index.write(indexFile);
+        System.out.println("Snapshot of " + result.authors().size() + " authors written to " + snapshot
+                + ", search index of " + index.size() + " articles written to " + indexFile
+                + (result.quarantine().isEmpty() ? "" : ", failed: " + result.quarantine()));
+    }
+
+    /**
+     * Выполняет запрос к полнотекстовому индексу и выводит найденные статьи.
+     *
+     * @param indexFile Файл индекса
+     * @param query     Запрос
+     * @throws IOException Если не удалось прочитать индекс
+     */
+    private static void search(Path indexFile, String query) throws IOException {
+        ArticleSearchIndex index = ArticleSearchIndex.read(indexFile);
+        long start = System.nanoTime();
+        List<ArticleSearchIndex.Hit> hits = index.search(query, SEARCH_LIMIT);
+        long micros = (System.nanoTime() - start) / 1000;
+        for (ArticleSearchIndex.Hit hit : hits) {
+            System.out.println(hit.author() + " | " + hit.article().title() + " | "
+                    + hit.article().placeOfPublication() + " | citations: " + hit.article().citations());
+        }
+        System.out.println(hits.size() + " of " + index.size() + " articles found in " + micros + " us");
+    }
+
+    /**
+     * Разбирает файлы в хранилище с ограниченным расходом кучи и записывает отчёт, читая авторов из хранилища.
+     *
+     * @param fileWriter      Настроенный писатель отчёта
+     * @param report          Файл отчёта .docx
+     * @param heapBudgetBytes Бюджет кучи для авторов
+     * @param inputPaths      Пути к HTML-файлам или архивам
+     * @throws IOException Если не удалось разобрать файлы или записать отчёт
+     */
+    private static void writeReport(ELibraryFileWriter fileWriter, Path report, long heapBudgetBytes,
+                                    List<String> inputPaths) throws IOException {
+        try (SpillingAuthorStore store = new SpillingAuthorStore(heapBudgetBytes)) {
+            List<ParseOutcome> outcomes = new ELibraryParser().parseInto(inputPaths, store);
+            fileWriter.write(store, report);
+            long failed = outcomes.stream().filter(outcome -> outcome.status() == ParseOutcome.Status.FAILED).count();
+            System.out.println("Report of " + store.size() + " authors (" + store.getSpilledCount()
+                    + " spilled) written to " + report + (failed == 0 ? "" : ", failed: " + failed));
+        }
+    }
+
+    /**
+     * Разбирает файлы один раз и записывает отчёт по каждому шаблону. Отчёт называется так же, как шаблон.
+     *
+     * @param fileWriter      Настроенный писатель отчётов
+     * @param outputDirectory Каталог отчётов
+     * @param templates       Файлы шаблонов .docx
+     * @param inputPaths      Пути к HTML-файлам или архивам
+     * @throws IOException Если не удалось разобрать шаблон или записать отчёт
+     */
+    private static void writeTemplateReports(ELibraryFileWriter fileWriter, Path outputDirectory,
+                                             List<String> templates, List<String> inputPaths) throws IOException {
+        Map<Path, ReportTemplate> reports = new LinkedHashMap<>();
+        for (String template : templates) {
+            Path templateFile = Path.of(template.trim());
+            reports.put(outputDirectory.resolve(templateFile.getFileName()), ReportTemplate.compile(templateFile));
+        }
+        ELibraryParseResult result = new ELibraryParser().parse(inputPaths);
+        Files.createDirectories(outputDirectory);
+        long start = System.nanoTime();
+        fileWriter.writeTemplates(result.authors(), reports);
+        System.out.println(reports.size() + " reports of " + result.authors().size() + " authors written to "
+                + outputDirectory + " in " + (System.nanoTime() - start) / 1_000_000 + " ms"
+                + (result.quarantine().isEmpty() ? "" : ", failed: " + result.quarantine()));
+    }
+
+    /**
+     * Сравнивает два снимка и записывает отчёт об изменениях.
+     *
+     * @param before Старый снимок
+     * @param after  Новый снимок
+     * @param report Файл отчёта .docx
+     * @throws IOException Если не удалось прочитать снимки или записать отчёт
+     */
+    private static void writeDiff(Path before, Path after, Path report) throws IOException {
+        List<AuthorDelta> deltas = AuthorSnapshotDiff.diff(AuthorSnapshot.read(before), AuthorSnapshot.read(after));
+        new ELibraryFileWriter().write(List.of(), deltas, report);
+    }
+
+    /**
+     * Включает раздел рейтинга в отчёте.
+     *
+     * @param fileWriter Писатель отчёта
+     * @param metric     Имя показателя {@link AuthorMetric}
+     * @param count      Количество авторов в рейтинге
+     * @return false, если показатель или количество заданы неверно
+     */
+    private static boolean setRanking(ELibraryFileWriter fileWriter, String metric, String count) {
+        try {
+            fileWriter.setRanking(AuthorMetric.parse(metric), Integer.parseInt(count));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Разбирает номер порта из аргумента командной строки.
+     *
+     * @param value Аргумент
+     * @return Порт или пустое значение, если аргумент - не номер порта
+     */
+    private static OptionalInt parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            return port >= 0 && port <= 65535 ? OptionalInt.of(port) : OptionalInt.empty();
+        } catch (NumberFormatException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Разбирает объём в мегабайтах из аргумента командной строки.
+     *
+     * @param value Аргумент
+     * @return Объём в байтах или пустое значение, если аргумент - не неотрицательное число или объём не помещается в long
+     */
+    private static OptionalLong parseMegabytes(String value) {
+        try {
+            long megabytes = Long.parseLong(value);
+            return megabytes >= 0 ? OptionalLong.of(Math.multiplyExact(megabytes, 1024 * 1024)) : OptionalLong.empty();
+        } catch (NumberFormatException | ArithmeticException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Запускает HTTP-сервис отчётов и останавливает его при завершении процесса.
+     *
+     * @param port Порт сервера
+     * @throws IOException Если не удалось занять порт
      */
-    public static void main(String[] args) {
-        ELibraryGUI.main(args);
+    private static void startServer(int port) throws IOException {
+        ELibraryReportServer server = new ELibraryReportServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
     }
 }
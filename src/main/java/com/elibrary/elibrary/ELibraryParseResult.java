@@ -0,0 +1,56 @@
+package com.elibrary.elibrary;
+
+import java.util.List;
+
+/**
+ * Неизменяемый результат одного вызова {@link ELibraryParser#parse(java.util.Collection)}.
+ *
+ * @param authors  Авторы успешно и частично разобранных файлов в порядке входных файлов.
+ * @param outcomes Результаты по каждому входному файлу в порядке входных файлов.
+ */
+public record ELibraryParseResult(List<Author> authors, List<ParseOutcome> outcomes) {
+
+    /**
+     * Создаёт результат, копируя списки.
+     *
+     * @param authors  Авторы успешно и частично разобранных файлов в порядке входных файлов.
+     * @param outcomes Результаты по каждому входному файлу в порядке входных файлов.
+     */
+    public ELibraryParseResult {
+        authors = List.copyOf(authors);
+        outcomes = List.copyOf(outcomes);
+    }
+
+    /**
+     * Создаёт результат без сведений о входных файлах.
+     *
+     * @param authors Авторы в порядке входных файлов.
+     */
+    public ELibraryParseResult(List<Author> authors) {
+        this(authors, List.of());
+    }
+
+    /**
+     * Возвращает входные файлы, которые не удалось разобрать.
+     * Такие файлы не попадают в {@link #authors()} и повторно не обрабатываются.
+     *
+     * @return Пути к файлам со статусом {@link ParseOutcome.Status#FAILED}
+     */
+    public List<String> quarantine() {
+        return outcomes.stream()
+                .filter(outcome -> outcome.status() == ParseOutcome.Status.FAILED)
+                .map(ParseOutcome::source)
+                .toList();
+    }
+
+    /**
+     * Возвращает результаты по файлам, разобранным частично или не разобранным.
+     *
+     * @return Результаты со статусом, отличным от {@link ParseOutcome.Status#OK}
+     */
+    public List<ParseOutcome> problems() {
+        return outcomes.stream()
+                .filter(outcome -> outcome.status() != ParseOutcome.Status.OK)
+                .toList();
+    }
+}
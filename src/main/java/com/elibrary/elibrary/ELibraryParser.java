@@ -1,9 +1,12 @@
 package com.elibrary.elibrary;
 
-import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -11,29 +14,264 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Класс ELibraryParser предназначен для парсинга информации из HTML-файлов электронной библиотеки ELibrary.
+ * <p>
+ * Методы {@link #parse(Collection)}, {@link #parseFile(String)} и {@link #parseDocument(Document)}
+ * не хранят состояния между вызовами и возвращают новые объекты на каждый вызов,
+ * поэтому один экземпляр парсера можно использовать из нескольких потоков одновременно.
+ * Методы {@link #addInputPath(String)}, {@link #parse()} и {@link #getArrayAuthors()} сохранены
+ * для однопоточного использования.
+ * <p>
+ * {@link #parse(Collection)} разбирает файлы параллельно и изолированно друг от друга: ошибка или превышение
+ * времени при разборе одного файла не влияет на остальные, а итог по каждому файлу
+ * возвращается в {@link ELibraryParseResult#outcomes()}.
+ * Организации авторов ({@link Author#getOrganization()}) назначаются при сборе результатов в порядке входных
+ * файлов, отдельным {@link AffiliationNormalizer} на каждый вызов над общим словарём {@link AffiliationDictionary}.
+ * Вместо HTML-файлов можно передавать zip-архивы сохранённых страниц и отдельные страницы,
+ * сжатые gzip: они читаются без распаковки на диск, записи zip-архива разбираются параллельно.
  */
 public class ELibraryParser {
     private static final Logger LOGGER = LogManager.getLogger(ELibraryParser.class);
     /**
-     * Массив для хранения путей до входных файлов
+     * Время на разбор одного файла по умолчанию.
      */
-    private final List<String> arrayInputPath = new ArrayList<>();
+    private static final Duration DEFAULT_FILE_TIMEOUT = Duration.ofSeconds(30);
+    /**
+     * Количество файлов в работе на один процессор при разборе в {@link SpillingAuthorStore}.
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+    /**
+     * Максимальный размер страницы после распаковки из .gz или записи zip-архива.
+     */
+    private static final int MAX_DECOMPRESSED_BYTES = 32 * 1024 * 1024;
+    /**
+     * Ячейка с количеством цитирований. Селектор разбирается один раз, а не для каждой ячейки таблицы.
+     */
+    private static final Evaluator CITATION_CELL = QueryParser.parse("td:nth-child(3)");
+    /**
+     * Параметр authorid в адресе страницы автора elibrary.ru.
+     */
+    private static final Pattern AUTHOR_ID = Pattern.compile("[?&]authorid=(\\d{1,18})(?!\\d)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Пулы потоков по умолчанию. Создаются при первом параллельном парсинге и используются всеми парсерами.
+     */
+    private static final class DefaultThreads {
+        private static final ExecutorService WORKERS = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), daemonThreads("elibrary-parser-"));
+        private static final ScheduledExecutorService WATCHDOG =
+                Executors.newSingleThreadScheduledExecutor(daemonThreads("elibrary-parser-watchdog-"));
+
+        private static ThreadFactory daemonThreads(String prefix) {
+            AtomicInteger counter = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * Поток, разбирающий файл. Сторожевой таймер прерывает его, пока разбор этого файла не завершён;
+     * после завершения поток уже может выполнять другую задачу пула и не прерывается.
+     */
+    private static final class RunningParse {
+        private final Thread thread = Thread.currentThread();
+        private boolean running = true;
+        private boolean interrupted;
+
+        synchronized void interrupt() {
+            if (running) {
+                interrupted = true;
+                thread.interrupt();
+            }
+        }
+
+        /**
+         * Отмечает завершение разбора и снимает прерывание, выставленное для этого файла,
+         * чтобы оно не досталось следующей задаче пула.
+         */
+        void finish() {
+            boolean clear;
+            synchronized (this) {
+                running = false;
+                clear = interrupted;
+            }
+            if (clear) Thread.interrupted();
+        }
+    }
+
+    /**
+     * Строки таблицы статей, собранные для {@link ArticleColumnStore}.
+     */
+    private record ArticleRows(List<String> titles, List<String> jointAuthors, List<String> placesOfPublication,
+                               List<PublicationVenue> venues, List<String> citations) {
+    }
+
+    /**
+     * Автор, полученный из одного документа, и строки его таблицы статей (если они были нужны).
+     */
+    private record ParsedPage(Author author, ArticleRows rows) {
+    }
+
     /**
-     * Ссылка на объект класса {@link Author}
+     * Страница для разбора: файл или запись архива.
+     *
+     * @param source  Имя источника для результата и логов
+     * @param path    Путь к файлу или к записи архива; null, если страницу не удалось открыть
+     * @param failure Причина, по которой страницу не удалось открыть, или null
      */
-    private Author author;
+    private record PageSource(String source, Path path, String failure) {
+    }
 
-    private Elements trElements = null;
+    /**
+     * Результат изолированного разбора одного файла.
+     */
+    private record ParsedFile(ParseOutcome outcome, ArticleRows rows) {
+    }
+
+    /**
+     * Страница отклонена {@link ELibraryFilePrefilter} до построения DOM-дерева.
+     */
+    private static final class RejectedPageException extends IOException {
+        RejectedPageException(String reason) {
+            super(reason);
+        }
+    }
+
+    /**
+     * Чтение страницы в документ для {@link #parseIsolated(String, PageLoader, boolean)}.
+     */
+    private interface PageLoader {
+        Document load() throws IOException;
+    }
+
+    /**
+     * Массив для хранения путей до входных файлов
+     */
+    private final List<String> arrayInputPath = new ArrayList<>();
 
     /**
      * Массив для хранения объектов класса {@link Author}
      */
     private final List<Author> arrayAuthors = new ArrayList<>();
-    private Document doc;
+
+    /**
+     * Фильтр статей, сохраняемых в {@link Author#getArticles()}
+     */
+    private final ArticleFilter articleFilter;
+    /**
+     * Максимальное время разбора одного файла в {@link #parse(Collection)}
+     */
+    private final Duration fileTimeout;
+    /**
+     * Пул потоков для {@link #parse(Collection)}; null - общий пул по умолчанию
+     */
+    private final ExecutorService executor;
+    /**
+     * Словарь организаций, общий для всех запусков разбора
+     */
+    private final AffiliationDictionary affiliations;
+    /**
+     * Счётчики хода параллельного парсинга; null - не собираются
+     */
+    private volatile ParseStatistics statistics;
+    /**
+     * Полнотекстовый индекс, пополняемый статьями разобранных авторов; null - не пополняется
+     */
+    private volatile ArticleSearchIndex searchIndex;
+
+    /**
+     * Создаёт парсер, сохраняющий у авторов только статьи с нулевым цитированием.
+     */
+    public ELibraryParser() {
+        this(ArticleFilter.zeroCitations());
+    }
+
+    /**
+     * Создаёт парсер с заданным фильтром статей.
+     *
+     * @param articleFilter Фильтр статей, сохраняемых в {@link Author#getArticles()}
+     */
+    public ELibraryParser(ArticleFilter articleFilter) {
+        this(articleFilter, DEFAULT_FILE_TIMEOUT, null);
+    }
+
+    /**
+     * Создаёт парсер с заданным фильтром статей, временем на файл и пулом потоков.
+     *
+     * @param articleFilter Фильтр статей, сохраняемых в {@link Author#getArticles()}
+     * @param fileTimeout   Максимальное время разбора одного файла
+     * @param executor      Пул потоков для параллельного разбора; null - общий пул по умолчанию
+     */
+    public ELibraryParser(ArticleFilter articleFilter, Duration fileTimeout, ExecutorService executor) {
+        this(articleFilter, fileTimeout, executor, AffiliationDictionary.defaults());
+    }
+
+    /**
+     * Создаёт парсер с заданным фильтром статей, временем на файл, пулом потоков и словарём организаций.
+     *
+     * @param articleFilter Фильтр статей, сохраняемых в {@link Author#getArticles()}
+     * @param fileTimeout   Максимальное время разбора одного файла
+     * @param executor      Пул потоков для параллельного разбора; null - общий пул по умолчанию
+     * @param affiliations  Словарь, по которому задаётся {@link Author#getOrganization()}
+     */
+    public ELibraryParser(ArticleFilter articleFilter, Duration fileTimeout, ExecutorService executor,
+                          AffiliationDictionary affiliations) {
+        this.articleFilter = articleFilter;
+        this.fileTimeout = fileTimeout;
+        this.executor = executor;
+        this.affiliations = affiliations;
+    }
+
+    /**
+     * Задаёт счётчики, которые потоки пула обновляют при разборе каждого файла.
+     *
+     * @param statistics Счётчики хода парсинга; null - не собирать
+     */
+    public void setStatistics(ParseStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Задаёт полнотекстовый индекс, в который добавляются статьи авторов по мере сбора результатов
+     * {@link #parse(Collection, ArticleColumnStore)} и {@link #parseInto(Collection, SpillingAuthorStore)}.
+     * Индекс хранит все добавленные статьи в куче, поэтому при разборе в {@link SpillingAuthorStore}
+     * с заданным индексом расход кучи растёт с количеством статей, несмотря на бюджет хранилища.
+     *
+     * @param searchIndex Индекс; null - не пополнять
+     */
+    public void setSearchIndex(ArticleSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
 
     /**
      * Метод добавляет в {@link #arrayInputPath} путь к файлу с HTML для последующего парсинга.
@@ -62,78 +300,554 @@ public class ELibraryParser {
     /**
      * Парсит информацию из нескольких HTML-файлов электронной библиотеки.
      * Если пути к файлам повторяются, метод парсит каждый файл только один раз.
-     * Использует {@link #parseELibrary(String)}.
+     * Файлы, которые не удалось разобрать, в {@link #arrayAuthors} не попадают.
+     * Использует {@link #parse(Collection)}.
      */
     public void parse() {
-        Set<String> setInputPath = new HashSet<>(arrayInputPath);
+        Set<String> setInputPath = new LinkedHashSet<>(arrayInputPath);
         arrayInputPath.clear();
         arrayInputPath.addAll(setInputPath);
-        for (String path : arrayInputPath) {
-            parseELibrary(path);
+        arrayAuthors.addAll(parse(arrayInputPath).authors());
+    }
+
+    /**
+     * Парсит информацию из нескольких HTML-файлов электронной библиотеки, не изменяя состояние парсера.
+     * Если пути к файлам повторяются, каждый файл парсится только один раз.
+     * Использует {@link #parse(Collection, ArticleColumnStore)}.
+     *
+     * @param inputPaths Пути к файлам с HTML
+     * @return Неизменяемый результат парсинга, авторы расположены в порядке входных путей
+     */
+    public ELibraryParseResult parse(Collection<String> inputPaths) {
+        return parse(inputPaths, null);
+    }
+
+    /**
+     * Парсит информацию из нескольких HTML-файлов и дополнительно добавляет все статьи авторов
+     * (а не только статьи с нулевым цитированием) в столбцовое хранилище.
+     * Файлы разбираются параллельно, каждый - с ограничением времени {@link #fileTimeout}.
+     * Результаты собираются в порядке входных путей, поэтому порядковые номера авторов в хранилище
+     * совпадают с порядком в результате.
+     * Файлы с расширением .zip разворачиваются в записи архива (источник записи - {@code архив!/запись}),
+     * файлы .gz распаковываются при чтении.
+     *
+     * @param inputPaths Пути к файлам с HTML или к архивам
+     * @param store      Хранилище статей, может быть null
+     * @return Неизменяемый результат парсинга, авторы расположены в порядке входных путей
+     */
+    public ELibraryParseResult parse(Collection<String> inputPaths, ArticleColumnStore store) {
+        List<FileSystem> archives = new ArrayList<>();
+        try {
+            List<CompletableFuture<ParsedFile>> futures = new ArrayList<>();
+            for (PageSource page : expand(inputPaths, archives)) {
+                futures.add(submit(page, store != null));
+            }
+            return collect(futures, store);
+        } finally {
+            closeArchives(archives);
+        }
+    }
+
+    /**
+     * Парсит информацию из нескольких HTML-файлов, добавляя авторов в хранилище с ограниченным расходом кучи.
+     * В отличие от {@link #parse(Collection, ArticleColumnStore)}, одновременно в работе находится не больше
+     * нескольких файлов на поток пула, поэтому в куче остаются только ещё не добавленные в хранилище авторы.
+     * Это не так, если задан индекс {@link #setSearchIndex(ArticleSearchIndex)}: статьи всех авторов
+     * остаются в индексе. Авторы добавляются в порядке входных путей.
+     *
+     * @param inputPaths Пути к файлам с HTML или к архивам
+     * @param store      Хранилище авторов
+     * @return Результаты разбора файлов в порядке входных путей; автор в них не сохраняется (null)
+     * @throws IOException Если не удалось записать автора в хранилище
+     */
+    public List<ParseOutcome> parseInto(Collection<String> inputPaths, SpillingAuthorStore store) throws IOException {
+        List<FileSystem> archives = new ArrayList<>();
+        try {
+            List<PageSource> pages = expand(inputPaths, archives);
+            List<ParseOutcome> outcomes = new ArrayList<>(pages.size());
+            ArrayDeque<CompletableFuture<ParsedFile>> window = new ArrayDeque<>();
+            AffiliationNormalizer organizations = new AffiliationNormalizer(affiliations);
+            int windowSize = IN_FLIGHT_PER_THREAD * Runtime.getRuntime().availableProcessors();
+            for (PageSource page : pages) {
+                if (window.size() >= windowSize) {
+                    addTo(store, organizations, window.pollFirst().join().outcome(), outcomes);
+                }
+                window.addLast(submit(page, false));
+            }
+            while (!window.isEmpty()) {
+                addTo(store, organizations, window.pollFirst().join().outcome(), outcomes);
+            }
+            return outcomes;
+        } finally {
+            closeArchives(archives);
+        }
+    }
+
+    /**
+     * Добавляет автора из результата разбора в хранилище, а результат без автора - в список результатов.
+     *
+     * @param store         Хранилище авторов
+     * @param organizations Нормализатор мест работы этого запуска
+     * @param outcome       Результат разбора файла
+     * @param outcomes      Список результатов
+     * @throws IOException Если не удалось записать автора в хранилище
+     */
+    private void addTo(SpillingAuthorStore store, AffiliationNormalizer organizations, ParseOutcome outcome,
+                       List<ParseOutcome> outcomes) throws IOException {
+        if (outcome.author() != null) {
+            assignOrganization(outcome.author(), organizations);
+            store.add(outcome.author());
+            ArticleSearchIndex index = searchIndex;
+            if (index != null) index.add(outcome.author());
+        }
+        outcomes.add(new ParseOutcome(outcome.source(), outcome.status(), null, outcome.reasons(),
+                outcome.elapsedMillis()));
+    }
+
+    /**
+     * Разворачивает входные пути в список страниц: пути без повторов, записи zip-архивов
+     * (источник записи - {@code архив!/запись}) и ошибки для путей, которые не удалось открыть.
+     * Архивы остаются открытыми, пока не будут собраны результаты.
+     *
+     * @param inputPaths Пути к файлам с HTML или к архивам
+     * @param archives   Список, в который добавляются открытые архивы
+     * @return Страницы в порядке входных путей
+     */
+    private List<PageSource> expand(Collection<String> inputPaths, List<FileSystem> archives) {
+        List<PageSource> pages = new ArrayList<>();
+        for (String input : new LinkedHashSet<>(inputPaths)) {
+            if (input.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                expandArchive(input, archives, pages);
+                continue;
+            }
+            try {
+                pages.add(new PageSource(input, Path.of(input), null));
+            } catch (InvalidPathException e) {
+                pages.add(new PageSource(input, null, "Invalid path"));
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Открывает zip-архив и добавляет его записи в список страниц.
+     *
+     * @param archivePath Путь к архиву
+     * @param archives    Список открытых архивов, в который добавляется этот архив
+     * @param pages       Список, в который добавляются записи архива
+     */
+    private void expandArchive(String archivePath, List<FileSystem> archives, List<PageSource> pages) {
+        List<Path> entries;
+        try {
+            FileSystem archive = FileSystems.newFileSystem(Path.of(archivePath));
+            archives.add(archive);
+            try (Stream<Path> walk = Files.walk(archive.getPath("/"))) {
+                entries = walk.filter(Files::isRegularFile)
+                        .filter(entry -> !entry.toString().startsWith("/__MACOSX"))
+                        .sorted()
+                        .toList();
+            }
+        } catch (IOException | ProviderNotFoundException | InvalidPathException e) {
+            LOGGER.error("Could not open the archive: " + archivePath);
+            pages.add(new PageSource(archivePath, null, "Could not open the archive: " + e.getMessage()));
+            return;
+        }
+        LOGGER.info("Found " + entries.size() + " entries in the archive: " + archivePath);
+        for (Path entry : entries) {
+            pages.add(new PageSource(archivePath + "!" + entry, entry, null));
+        }
+    }
+
+    private static void closeArchives(List<FileSystem> archives) {
+        for (FileSystem archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                LOGGER.error("Could not close the archive: " + archive);
+            }
+        }
+    }
+
+    /**
+     * Собирает результаты разбора в порядке отправки и добавляет строки таблиц в хранилище,
+     * а статьи авторов - в {@link #searchIndex}.
+     *
+     * @param futures Будущие результаты разбора
+     * @param store   Хранилище статей, может быть null
+     * @return Результат парсинга
+     */
+    private ELibraryParseResult collect(List<CompletableFuture<ParsedFile>> futures, ArticleColumnStore store) {
+        List<Author> authors = new ArrayList<>(futures.size());
+        List<ParseOutcome> outcomes = new ArrayList<>(futures.size());
+        ArticleSearchIndex index = searchIndex;
+        AffiliationNormalizer organizations = new AffiliationNormalizer(affiliations);
+        for (CompletableFuture<ParsedFile> future : futures) {
+            ParsedFile parsed = future.join();
+            ParseOutcome outcome = parsed.outcome();
+            outcomes.add(outcome);
+            if (outcome.author() == null) continue;
+            assignOrganization(outcome.author(), organizations);
+            authors.add(outcome.author());
+            if (index != null) index.add(outcome.author());
+            if (store != null && parsed.rows() != null) {
+                ArticleRows rows = parsed.rows();
+                store.addAuthor(outcome.author(), rows.titles(), rows.jointAuthors(), rows.placesOfPublication(),
+                        rows.venues(), rows.citations());
+            }
+        }
+        return new ELibraryParseResult(authors, outcomes);
+    }
+
+    /**
+     * Отправляет разбор страницы в пул потоков. Если разбор не уложился в {@link #fileTimeout},
+     * результат завершается статусом {@link ParseOutcome.Status#FAILED}, не дожидаясь потока,
+     * а поток прерывается: разбор проверяет прерывание между строками таблицы и освобождает поток пула.
+     *
+     * @param page        Страница
+     * @param collectRows Собирать ли строки таблицы для {@link ArticleColumnStore}
+     * @return Будущий результат разбора
+     */
+    private CompletableFuture<ParsedFile> submit(PageSource page, boolean collectRows) {
+        String source = page.source();
+        if (page.failure() != null) {
+            return CompletableFuture.completedFuture(
+                    new ParsedFile(ParseOutcome.failed(source, page.failure(), 0), null));
+        }
+        Path path = page.path();
+        CompletableFuture<ParsedFile> result = new CompletableFuture<>();
+        ParseStatistics stats = statistics;
+        try {
+            if (stats != null) stats.fileSubmitted();
+            (executor != null ? executor : DefaultThreads.WORKERS).execute(
+                    () -> parseWatched(source, () -> readPage(source, path), collectRows, result, stats));
+        } catch (RejectedExecutionException e) {
+            if (stats != null) {
+                stats.fileStarted();
+                stats.fileFinished(source, 0, ParseOutcome.Status.FAILED);
+            }
+            result.complete(new ParsedFile(ParseOutcome.failed(source, "Rejected by the executor", 0), null));
+        }
+        return result;
+    }
+
+    /**
+     * Разбирает страницу в текущем потоке под сторожевым таймером. Если разбор не уложился в {@link #fileTimeout},
+     * таймер завершает результат статусом {@link ParseOutcome.Status#FAILED} и прерывает поток.
+     *
+     * @param source      Имя источника для результата и логов
+     * @param loader      Чтение страницы
+     * @param collectRows Собирать ли строки таблицы для {@link ArticleColumnStore}
+     * @param result      Результат, который завершает поток или таймер - кто раньше
+     * @param stats       Счётчики хода парсинга или null
+     */
+    private void parseWatched(String source, PageLoader loader, boolean collectRows,
+                              CompletableFuture<ParsedFile> result, ParseStatistics stats) {
+        if (stats != null) stats.fileStarted();
+        long start = System.nanoTime();
+        long timeoutMillis = fileTimeout.toMillis();
+        RunningParse running = new RunningParse();
+        ScheduledFuture<?> timer = DefaultThreads.WATCHDOG.schedule(() -> {
+            if (result.complete(new ParsedFile(ParseOutcome.failed(source,
+                    "Timed out after " + timeoutMillis + " ms", timeoutMillis), null))) {
+                LOGGER.error("Parsing timed out: " + source);
+                running.interrupt();
+                if (stats != null) {
+                    stats.fileFinished(source, System.nanoTime() - start, ParseOutcome.Status.FAILED);
+                }
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        ParsedFile parsed = null;
+        try {
+            parsed = parseIsolated(source, loader, collectRows);
+        } finally {
+            timer.cancel(false);
+            running.finish();
+            if (parsed == null) {
+                parsed = new ParsedFile(ParseOutcome.failed(source, "Parsing aborted", elapsedMillis(start)), null);
+            }
+            // Файл учитывается тем, кто завершил результат: потоком или сторожевым таймером
+            if (result.complete(parsed) && stats != null) {
+                stats.fileFinished(source, System.nanoTime() - start, parsed.outcome().status());
+            }
         }
     }
 
     /**
-     * Инициализирует новый HTML-файл для дальнейшего парсинга.
-     * При ошибке открытия файла записывает error в лог.
+     * Разбирает один файл, перехватывая любые ошибки разбора.
+     * Файлы, не прошедшие {@link ELibraryFilePrefilter}, отклоняются без построения DOM-дерева.
      *
-     * @param fileInputPath Путь к HTML-файлу для инициализации
+     * @param source      Имя источника для результата и логов
+     * @param loader      Чтение страницы: {@link #readPage(String, Path)} или {@link #readPage(String, byte[])}
+     * @param collectRows Собирать ли строки таблицы для {@link ArticleColumnStore}
+     * @return Результат разбора
      */
-    private void initNewFile(String fileInputPath) {
+    private ParsedFile parseIsolated(String source, PageLoader loader, boolean collectRows) {
+        LOGGER.info("Starting to parse the file: " + source);
+        long start = System.nanoTime();
         try {
-            doc = Jsoup.parse(new File(fileInputPath), "UTF-8");
+            Document doc = loader.load();
+            checkInterrupted();
+            if (doc.selectFirst("tr") == null) {
+                LOGGER.error("Failed to parse the table: " + source);
+                return new ParsedFile(ParseOutcome.failed(source, "Publication table not found", elapsedMillis(start)),
+                        null);
+            }
+            List<String> problems = new ArrayList<>();
+            ParsedPage page = parseDocument(doc, collectRows, problems);
+            ParseOutcome.Status status = problems.isEmpty() ? ParseOutcome.Status.OK : ParseOutcome.Status.PARTIAL;
+            if (status == ParseOutcome.Status.PARTIAL) {
+                LOGGER.warn("The file was parsed partially: " + source + " " + problems);
+            }
+            return new ParsedFile(new ParseOutcome(source, status, page.author(), problems, elapsedMillis(start)),
+                    page.rows());
+        } catch (RejectedPageException e) {
+            LOGGER.error("The file was rejected before parsing: " + source + " (" + e.getMessage() + ")");
+            return new ParsedFile(ParseOutcome.failed(source, e.getMessage(), elapsedMillis(start)), null);
+        } catch (HtmlPageReader.PageTooLargeException e) {
+            LOGGER.error("The file is too large: " + source + " (" + e.getMessage() + ")");
+            return new ParsedFile(ParseOutcome.failed(source, e.getMessage(), elapsedMillis(start)), null);
+        } catch (NoSuchFileException e) {
+            LOGGER.error("File not found: " + source);
+            return new ParsedFile(ParseOutcome.failed(source, "File not found", elapsedMillis(start)), null);
         } catch (IOException e) {
-            LOGGER.error("Could not read the file");
+            LOGGER.error("Could not read the file: " + source);
+            return new ParsedFile(ParseOutcome.failed(source, "Could not read the file: " + e.getMessage(),
+                    elapsedMillis(start)), null);
+        } catch (CancellationException e) {
+            LOGGER.warn("Parsing was interrupted: " + source);
+            return new ParsedFile(ParseOutcome.failed(source, "Parsing was interrupted", elapsedMillis(start)), null);
+        } catch (RuntimeException | StackOverflowError e) {
+            LOGGER.error("Failed to parse the file: " + source, e);
+            return new ParsedFile(ParseOutcome.failed(source, "Failed to parse the file: " + e,
+                    elapsedMillis(start)), null);
+        }
+    }
+
+    /**
+     * Читает страницу из файла, записи zip-архива или gzip-файла.
+     * Обычные файлы проверяются {@link ELibraryFilePrefilter} по началу и концу файла до чтения,
+     * сжатые страницы - после распаковки в память. Распаковка прекращается, если страница превысит
+     * {@link #MAX_DECOMPRESSED_BYTES}, и файл считается неразобранным.
+     * Страница читается в буфер {@link HtmlPageReader} текущего потока, который переиспользуется между файлами.
+     *
+     * @param source Имя источника, используется как базовый адрес документа
+     * @param path   Путь к файлу или к записи архива
+     * @return Прочитанный документ
+     * @throws IOException Если страницу не удалось прочитать или она отклонена
+     */
+    private Document readPage(String source, Path path) throws IOException {
+        HtmlPageReader reader = HtmlPageReader.current();
+        if (path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(path))) {
+                reader.read(in, MAX_DECOMPRESSED_BYTES);
+            }
+        } else if (path.getFileSystem() != FileSystems.getDefault()) {
+            reader.read(path, MAX_DECOMPRESSED_BYTES);
+        } else {
+            Optional<String> rejection = ELibraryFilePrefilter.rejectionReason(path);
+            if (rejection.isPresent()) {
+                throw new RejectedPageException(rejection.get());
+            }
+            reader.read(path);
+            return reader.parse(source);
+        }
+        Optional<String> rejection = ELibraryFilePrefilter.rejectionReason(reader.buffer(), reader.length());
+        if (rejection.isPresent()) {
+            throw new RejectedPageException(rejection.get());
+        }
+        return reader.parse(source);
+    }
+
+    /**
+     * Читает страницу, уже находящуюся в памяти (например, загруженную в {@link ELibraryReportServer}),
+     * предварительно проверив её {@link ELibraryFilePrefilter}.
+     *
+     * @param source Имя источника, используется как базовый адрес документа
+     * @param page   Содержимое страницы
+     * @return Прочитанный документ
+     * @throws IOException Если страница отклонена или её не удалось декодировать
+     */
+    private Document readPage(String source, byte[] page) throws IOException {
+        Optional<String> rejection = ELibraryFilePrefilter.rejectionReason(page);
+        if (rejection.isPresent()) {
+            throw new RejectedPageException(rejection.get());
+        }
+        return HtmlPageReader.current().parse(page, page.length, source);
+    }
+
+    /**
+     * Возвращает время, прошедшее с заданного момента.
+     *
+     * @param startNanos Момент начала по {@link System#nanoTime()}
+     * @return Прошедшее время в миллисекундах
+     */
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Читает HTML-документ из файла.
+     * Кодировка определяется по BOM или тегу meta, по умолчанию используется UTF-8.
+     * При ошибке открытия файла записывает error в лог и возвращает пустой документ,
+     * чтобы данные не были взяты из ранее прочитанного файла.
+     *
+     * @param fileInputPath Путь к HTML-файлу
+     * @return Прочитанный документ
+     */
+    private Document readDocument(String fileInputPath) {
+        try {
+            HtmlPageReader reader = HtmlPageReader.current();
+            reader.read(new File(fileInputPath).toPath());
+            return reader.parse(new File(fileInputPath).getAbsolutePath());
+        } catch (IOException | InvalidPathException e) {
+            LOGGER.error("Could not read the file: " + fileInputPath);
+            return new Document(fileInputPath);
         }
     }
 
     /**
      * Парсит информацию из HTML-файла электронной библиотеки.
-     * Создаёт внутри себя объекты класса {@link Author},
-     * Записывает в {@link #arrayAuthors} авторов.
-     * Использует {@link #initNewFile(String)},
-     * {@link #initTrElements()},
-     * {@link #parseCitations()}
-     * {@link #parseAuthorName()},
-     * {@link #parsePlaceOfWork()},
-     * {@link #addArticles()}
-     * Пишет лог о начале парсинга файла
+     * Записывает в {@link #arrayAuthors} автора, полученного через {@link #parseFile(String)}.
      *
      * @param inputPath Путь к файлу с HTML для парсинга
      */
     public void parseELibrary(String inputPath) {
+        arrayAuthors.add(parseFile(inputPath));
+    }
+
+    /**
+     * Парсит информацию из HTML-файла электронной библиотеки, не изменяя состояние парсера.
+     * Использует {@link #readDocument(String)} и {@link #parseDocument(Document)}.
+     * Пишет лог о начале парсинга файла
+     *
+     * @param inputPath Путь к файлу с HTML для парсинга
+     * @return Новый объект класса {@link Author}
+     */
+    public Author parseFile(String inputPath) {
         LOGGER.info("Starting to parse the file: " + inputPath);
-        initNewFile(inputPath);
-        initTrElements();
-        author = new Author(parseCitations());
-        author.setName(parseAuthorName());
-        author.setPlaceOfWork(parsePlaceOfWork());
-        addArticles();
-        arrayAuthors.add(author);
+        return parseDocument(readDocument(inputPath));
+    }
+
+    /**
+     * Парсит информацию из HTML-страницы, переданной потоком, не изменяя состояние парсера.
+     * Кодировка определяется по содержимому страницы, по умолчанию используется UTF-8.
+     * Поток не закрывается.
+     *
+     * @param in      Поток с HTML-страницей
+     * @param baseUri Имя источника, используется для логов и ссылок
+     * @return Новый объект класса {@link Author}
+     * @throws IOException При ошибке чтения потока или если страница больше 64 МБ
+     */
+    public Author parseStream(InputStream in, String baseUri) throws IOException {
+        LOGGER.info("Starting to parse the stream: " + baseUri);
+        HtmlPageReader reader = HtmlPageReader.current();
+        reader.read(in);
+        return parseDocument(reader.parse(baseUri));
+    }
+
+    /**
+     * Разбирает страницу, находящуюся в памяти, так же, как файлы в {@link #parse(Collection)}:
+     * страница проверяется {@link ELibraryFilePrefilter}, ошибки разбора не выбрасываются,
+     * а возвращаются в результате. Выполняется в вызывающем потоке под тем же сторожевым таймером,
+     * что и разбор файлов: по истечении времени на файл поток прерывается, а страница считается неразобранной.
+     *
+     * @param page   Содержимое страницы
+     * @param source Имя страницы для результата и логов
+     * @return Результат разбора; автор есть только у статусов OK и PARTIAL
+     */
+    public ParseOutcome parsePage(byte[] page, String source) {
+        CompletableFuture<ParsedFile> result = new CompletableFuture<>();
+        parseWatched(source, () -> readPage(source, page), false, result, null);
+        ParseOutcome outcome = result.join().outcome();
+        if (outcome.author() != null) {
+            assignOrganization(outcome.author(), new AffiliationNormalizer(affiliations));
+        }
+        return outcome;
+    }
+
+    /**
+     * Назначает организации авторам, разобранным по отдельности (например, {@link #parsePage(byte[], String)}),
+     * одним нормализатором в порядке списка, как это делает {@link #parse(Collection)}: места работы одной
+     * организации, которой нет в словаре, получают одинаковое название.
+     *
+     * @param authors Авторы в порядке входных страниц
+     */
+    void assignOrganizations(List<Author> authors) {
+        AffiliationNormalizer organizations = new AffiliationNormalizer(affiliations);
+        for (Author author : authors) {
+            assignOrganization(author, organizations);
+        }
+    }
+
+    private static void assignOrganization(Author author, AffiliationNormalizer organizations) {
+        author.setOrganization(organizations.normalize(author.getPlaceOfWork()));
+    }
+
+    /**
+     * Парсит информацию из уже прочитанного HTML-документа электронной библиотеки.
+     * Создаёт внутри себя объект класса {@link Author}.
+     * Использует {@link #parseDocument(Document, boolean, List)}
+     *
+     * @param doc HTML-документ
+     * @return Новый объект класса {@link Author}
+     */
+    public Author parseDocument(Document doc) {
+        Author author = parseDocument(doc, false, new ArrayList<>()).author();
+        assignOrganization(author, new AffiliationNormalizer(affiliations));
+        return author;
+    }
+
+    /**
+     * Парсит информацию из HTML-документа и при необходимости собирает все строки таблицы статей.
+     * Использует {@link #selectTrElements(Document)},
+     * {@link #parseCitations(Elements, List)}
+     * {@link #parseAuthorName(Document, List)},
+     * {@link #parsePlaceOfWork(Document, List)},
+     * {@link #addArticles(Author, Elements, List, boolean, List)}
+     *
+     * @param doc         HTML-документ
+     * @param collectRows Собирать ли строки таблицы для {@link ArticleColumnStore}
+     * @param problems    Список, в который добавляются описания найденных проблем
+     * @return Автор и, если нужно, строки таблицы
+     */
+    private ParsedPage parseDocument(Document doc, boolean collectRows, List<String> problems) {
+        Elements trElements = selectTrElements(doc);
+        List<String> citations = parseCitations(trElements, problems);
+        Author author = new Author(citations);
+        author.setName(parseAuthorName(doc, problems));
+        author.setPlaceOfWork(parsePlaceOfWork(doc, problems));
+        author.setAuthorId(parseAuthorId(doc));
+        ArticleRows rows = addArticles(author, trElements, citations, collectRows, problems);
+        return new ParsedPage(author, rows);
     }
 
 
     /**
-     * Инициализирует элементы таблицы для последующего парсинга.
+     * Выбирает элементы таблицы для последующего парсинга.
      * Если не удалось распарсить таблицу, будет создан пустой набор элементов.
+     *
+     * @param doc HTML-документ
+     * @return Строки таблицы
      */
-    private void initTrElements() {
+    private Elements selectTrElements(Document doc) {
         try {
-            trElements = doc.select("tr");
+            return doc.select("tr");
         } catch (NullPointerException e) {
             LOGGER.error("Failed to parse the table");
-            trElements = new Elements();
+            return new Elements();
         }
     }
 
     /**
      * Парсит названия статей из элементов таблицы.
      *
+     * @param trElements Строки таблицы
      * @return Список названий статей
      */
-    private List<String> parseNameOfArticles() {
+    private List<String> parseNameOfArticles(Elements trElements) {
         List<String> nameOfArticles = new ArrayList<>();
         for (Element article : trElements.select("b")) {
+            checkInterrupted();
             if (article.text().contains("table"))
                 nameOfArticles.add(article.select("span").text());
             else nameOfArticles.add(article.text());
@@ -144,13 +858,15 @@ public class ELibraryParser {
     /**
      * Парсит место публикаций статей из элементов таблицы.
      *
+     * @param trElements Строки таблицы
      * @return Список мест публикаций
      */
-    private List<String> parsePlacesOfPublication() {
+    private List<String> parsePlacesOfPublication(Elements trElements) {
         List<String> placesOfPublication = new ArrayList<>();
         Element[] tdBufferElements;
         tdBufferElements = trElements.select("td").toArray(new Element[0]);
         for (Element element : tdBufferElements) {
+            checkInterrupted();
             String line = element.text();
 
             if (!isDigit(line) && !line.equals("№") && !line.equals("ПубликацияЦитирований")) {
@@ -163,18 +879,32 @@ public class ELibraryParser {
         return placesOfPublication;
     }
 
+    /**
+     * Прекращает разбор, если поток прерван сторожевым таймером.
+     *
+     * @throws CancellationException Если поток прерван
+     */
+    private static void checkInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Parsing was interrupted");
+        }
+    }
+
     /**
      * Метод для извлечения ФИО автора из HTML-документа.
      *
+     * @param doc      HTML-документ
+     * @param problems Список, в который добавляется проблема, если имя не найдено
      * @return ФИО автора
      */
-    private String parseAuthorName() {
+    private String parseAuthorName(Document doc, List<String> problems) {
         Element element;
         try {
             element = doc.select("span").first();
             return Objects.requireNonNull(element).text();
         } catch (NullPointerException e) {
             LOGGER.error("Failed to parse the author name");
+            problems.add("Author name not found");
             return "Не удалось найти имя автора";
         }
     }
@@ -182,27 +912,70 @@ public class ELibraryParser {
     /**
      * Метод для извлечения места работы из HTML-документа.
      *
+     * @param doc      HTML-документ
+     * @param problems Список, в который добавляется проблема, если место работы не найдено
      * @return Место работы автора
      */
-    private String parsePlaceOfWork() {
+    private String parsePlaceOfWork(Document doc, List<String> problems) {
         Element element;
         try {
             element = doc.select("i").first();
             return Objects.requireNonNull(element).text();
         } catch (NullPointerException e) {
             LOGGER.error("Failed to parse the place of work");
+            problems.add("Place of work not found");
             return "Место работы не найдено";
         }
     }
 
+    /**
+     * Метод для извлечения идентификатора автора (authorid) из адреса сохранённой страницы.
+     * Адрес ищется в метаданных ({@code og:url}, {@code canonical}, {@code base}), затем в комментарии
+     * {@code saved from url}, который браузер добавляет при сохранении, и в последнюю очередь в ссылках страницы,
+     * если все они указывают на одного автора.
+     *
+     * @param doc HTML-документ
+     * @return Идентификатор автора или 0, если его нет на странице
+     */
+    private long parseAuthorId(Document doc) {
+        for (Element element : doc.select("meta[content*=authorid], link[href*=authorid], base[href*=authorid]")) {
+            long authorId = authorIdOf(element.hasAttr("content") ? element.attr("content") : element.attr("href"));
+            if (authorId > 0) return authorId;
+        }
+        List<Node> topLevel = new ArrayList<>(doc.childNodes());
+        Element html = doc.selectFirst("html");
+        if (html != null) topLevel.addAll(html.childNodes());
+        for (Node node : topLevel) {
+            if (node instanceof Comment comment) {
+                long authorId = authorIdOf(comment.getData());
+                if (authorId > 0) return authorId;
+            }
+        }
+        long linked = 0;
+        for (Element link : doc.select("a[href*=authorid]")) {
+            long authorId = authorIdOf(link.attr("href"));
+            if (authorId == 0) continue;
+            if (linked != 0 && linked != authorId) return 0;
+            linked = authorId;
+        }
+        return linked;
+    }
+
+    private static long authorIdOf(String url) {
+        Matcher matcher = AUTHOR_ID.matcher(url);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
     /**
      * Метод для парсинга совместных авторов.
      *
+     * @param trElements Строки таблицы
      * @return Список совместных авторов
      */
-    private List<String> parseJointAuthors() {
+    private List<String> parseJointAuthors(Elements trElements) {
         List<String> jointAuthors = new ArrayList<>();
         for (Element element : trElements.select("i")) {
+            checkInterrupted();
             jointAuthors.add(element.text());
         }
         return jointAuthors;
@@ -210,42 +983,90 @@ public class ELibraryParser {
 
     /**
      * Метод для парсинга количества цитирований.
+     * Значения, не являющиеся числом, пропускаются и записываются в список проблем.
      *
+     * @param trElements Строки таблицы
+     * @param problems   Список, в который добавляются пропущенные значения
      * @return Список цитат
      */
-    private List<String> parseCitations() {
+    private List<String> parseCitations(Elements trElements, List<String> problems) {
         List<String> citations = new ArrayList<>();
         for (Element cit : trElements.select("td")) {
-            String bufferCit = cit.select("td:nth-child(3)").text();
+            checkInterrupted();
+            String bufferCit = cit.select(CITATION_CELL).text();
             if (!bufferCit.isBlank() && !bufferCit.equals(" ")) {
-                citations.add(bufferCit);
+                if (isDigit(bufferCit) && bufferCit.length() < 10) {
+                    citations.add(bufferCit);
+                } else {
+                    problems.add("Invalid citation count skipped: " + bufferCit);
+                }
             }
         }
         return citations;
     }
 
     /**
-     * Метод для добавления статей в класс
-     * {@link Author#addArticle(String, String, String)}.
+     * Метод для добавления статей, отобранных {@link #articleFilter}, в класс
+     * {@link Author#addArticle(String, String, String, PublicationVenue, int)}.
+     *
+     * Если количество названий, совместных авторов, мест публикации и цитирований различается,
+     * используются только строки, для которых есть все значения, а расхождение записывается в список проблем.
+     *
+     * @param author      Автор, которому добавляются статьи
+     * @param trElements  Строки таблицы
+     * @param citations   Список цитат, полученный из {@link #parseCitations(Elements, List)}
+     * @param collectRows Собирать ли все строки таблицы для {@link ArticleColumnStore}
+     * @param problems    Список, в который добавляются описания найденных проблем
+     * @return Все строки таблицы или null, если они не нужны
+     */
+    private ArticleRows addArticles(Author author, Elements trElements, List<String> citations, boolean collectRows,
+                                    List<String> problems) {
+        List<String> nameOfArticles = parseNameOfArticles(trElements);
+        List<String> jointAuthors = parseJointAuthors(trElements);
+        List<String> placeOfPublication = parsePlacesOfPublication(trElements);
+        List<PublicationVenue> venues = collectRows ? parseVenues(placeOfPublication) : null;
+        int rowCount = Math.min(Math.min(nameOfArticles.size(), jointAuthors.size()),
+                Math.min(placeOfPublication.size(), citations.size()));
+        if (rowCount != nameOfArticles.size() || rowCount != jointAuthors.size()
+                || rowCount != placeOfPublication.size() || rowCount != citations.size()) {
+            problems.add("Table columns differ in size (titles " + nameOfArticles.size()
+                    + ", co-authors " + jointAuthors.size() + ", venues " + placeOfPublication.size()
+                    + ", citations " + citations.size() + "), only " + rowCount + " rows used");
+        }
+        int[] citationValues = new int[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            citationValues[i] = Integer.parseInt(citations.get(i));
+        }
+        for (int i : articleFilter.select(citationValues)) {
+            checkInterrupted();
+            PublicationVenue venue = venues != null ? venues.get(i) : PublicationVenue.parse(placeOfPublication.get(i));
+            author.addArticle(nameOfArticles.get(i), jointAuthors.get(i), placeOfPublication.get(i), venue,
+                    citationValues[i]);
+        }
+        return collectRows ? new ArticleRows(nameOfArticles, jointAuthors, placeOfPublication, venues, citations) : null;
+    }
+
+    /**
+     * Разбирает места публикации всех статей, чтобы каждая строка разбиралась только один раз.
+     *
+     * @param placesOfPublication Места публикации
+     * @return Разобранные места публикации в том же порядке
      */
-    private void addArticles() {
-        List<String> nameOfArticles = parseNameOfArticles();
-        List<String> jointAuthors = parseJointAuthors();
-        List<String> placeOfPublication = parsePlacesOfPublication();
-        List<String> citations = parseCitations();
-        for (int i = 0; i < nameOfArticles.size() - 1; i++) {
-            if (citations.get(i).equals("0"))
-                author.addArticle(nameOfArticles.get(i), jointAuthors.get(i), placeOfPublication.get(i));
+    private List<PublicationVenue> parseVenues(List<String> placesOfPublication) {
+        List<PublicationVenue> venues = new ArrayList<>(placesOfPublication.size());
+        for (String place : placesOfPublication) {
+            venues.add(PublicationVenue.parse(place));
         }
+        return venues;
     }
 
     /**
-     * Метод для получения массива авторов.
+     * Метод для получения массива авторов, накопленных методами {@link #parse()} и {@link #parseELibrary(String)}.
      *
-     * @return Массив авторов
+     * @return Неизменяемое представление массива авторов
      */
     public List<Author> getArrayAuthors() {
-        return arrayAuthors;
+        return Collections.unmodifiableList(arrayAuthors);
     }
 
     /**
@@ -0,0 +1,447 @@
+package com.elibrary.elibrary;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Класс ELibraryReportServer - встроенный HTTP-сервис, принимающий сохранённые страницы авторов
+ * и возвращающий отчёт в формате DOCX или JSON.
+ * <p>
+ * Запрос: {@code POST /report?format=docx|json&articles=zero|all|min:N|max:N|top:N&ranking=<показатель>:K},
+ * тело - одна HTML-страница или {@code multipart/form-data} с несколькими страницами.
+ * Параметр {@code articles} задаёт {@link ArticleFilter}, параметр {@code ranking} добавляет в отчёт DOCX
+ * раздел с K лучшими авторами по показателю {@link AuthorMetric}.
+ * Количество одновременно выполняемых парсингов ограничено размером пула потоков,
+ * количество принятых в работу запросов - семафором; сверх лимита сервер отвечает 503.
+ * Небольшие страницы объединяются в пачки через {@link ParseBatcher}.
+ * Загруженные страницы проходят ту же проверку, что и файлы ({@link ELibraryParser#parsePage(byte[], String)});
+ * если хотя бы одна страница не разобрана, сервер отвечает 422 с причинами. Отчёт формируется в памяти
+ * и отправляется с точной длиной, поэтому ошибка формирования даёт код ошибки, а не оборванный ответ 200.
+ */
+public class ELibraryReportServer implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(ELibraryReportServer.class);
+    private static final String DOCX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+    /**
+     * Максимальный размер тела запроса в байтах.
+     */
+    private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+    /**
+     * Страницы меньше этого размера отправляются в {@link ParseBatcher}, остальные парсятся отдельной задачей.
+     */
+    private static final int SMALL_PAGE_SIZE = 64 * 1024;
+    private static final int MAX_BATCH_SIZE = 32;
+    private static final long BATCH_WINDOW_MILLIS = 5;
+    private static final long REQUEST_TIMEOUT_SECONDS = 120;
+    /**
+     * Время на разбор одной загруженной страницы.
+     */
+    private static final Duration FILE_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Тело запроса больше {@link #MAX_BODY_SIZE}.
+     */
+    private static final class RequestTooLargeException extends IOException {
+        RequestTooLargeException() {
+            super("Request body is larger than " + MAX_BODY_SIZE / (1024 * 1024) + " MB");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ExecutorService workers;
+    private final Semaphore admission;
+    private final ParseBatcher batcher;
+    private final ELibraryFileWriter defaultFileWriter = new ELibraryFileWriter();
+    private final ELibraryJsonWriter jsonWriter = new ELibraryJsonWriter();
+
+    /**
+     * Создаёт сервер, не запуская его.
+     *
+     * @param address             Адрес и порт; порт 0 означает любой свободный порт
+     * @param maxConcurrentParses Максимальное количество одновременных парсингов
+     * @param maxPendingRequests  Максимальное количество запросов, принятых в работу
+     * @throws IOException Если не удалось занять порт
+     */
+    public ELibraryReportServer(InetSocketAddress address, int maxConcurrentParses, int maxPendingRequests)
+            throws IOException {
+        server = HttpServer.create(address, 0);
+        handlers = Executors.newCachedThreadPool();
+        workers = Executors.newFixedThreadPool(maxConcurrentParses);
+        admission = new Semaphore(maxPendingRequests);
+        batcher = new ParseBatcher(workers, maxConcurrentParses, MAX_BATCH_SIZE, BATCH_WINDOW_MILLIS);
+        server.setExecutor(handlers);
+        server.createContext("/report", this::handleReport);
+    }
+
+    /**
+     * Создаёт сервер на локальном адресе с настройками по умолчанию.
+     *
+     * @param port Порт; 0 означает любой свободный порт
+     * @throws IOException Если не удалось занять порт
+     */
+    public ELibraryReportServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Runtime.getRuntime().availableProcessors(), 256);
+    }
+
+    /**
+     * Запускает сервер.
+     */
+    public void start() {
+        server.start();
+        LOGGER.info("Report server started on port " + getPort());
+    }
+
+    /**
+     * Возвращает порт, на котором работает сервер.
+     *
+     * @return Номер порта
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Обрабатывает запрос на построение отчёта.
+     *
+     * @param exchange HTTP-запрос
+     * @throws IOException При ошибке чтения запроса или записи ответа
+     */
+    private void handleReport(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendText(exchange, 405, "Only POST is supported");
+                return;
+            }
+            String format = queryParameter(exchange, "format", "docx");
+            if (!format.equals("docx") && !format.equals("json")) {
+                sendText(exchange, 400, "Unknown format: " + format);
+                return;
+            }
+            ArticleFilter articleFilter;
+            ELibraryFileWriter fileWriter;
+            try {
+                articleFilter = ArticleFilter.parse(queryParameter(exchange, "articles", "zero"));
+                fileWriter = fileWriter(queryParameter(exchange, "ranking", null));
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+                return;
+            }
+            if (!admission.tryAcquire()) {
+                LOGGER.warn("Report request rejected: server is overloaded");
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                sendText(exchange, 503, "Server is overloaded");
+                return;
+            }
+            try {
+                List<byte[]> pages = readPages(exchange);
+                if (pages.isEmpty()) {
+                    sendText(exchange, 400, "No HTML pages in request");
+                    return;
+                }
+                ELibraryParser parser = new ELibraryParser(articleFilter, FILE_TIMEOUT, workers);
+                List<ParseOutcome> outcomes = parsePages(parser, pages);
+                List<String> failures = new ArrayList<>();
+                List<Author> authors = new ArrayList<>(outcomes.size());
+                for (ParseOutcome outcome : outcomes) {
+                    if (outcome.status() == ParseOutcome.Status.FAILED) {
+                        failures.add(outcome.source() + ": " + String.join("; ", outcome.reasons()));
+                    } else {
+                        authors.add(outcome.author());
+                    }
+                }
+                if (!failures.isEmpty()) {
+                    sendText(exchange, 422, "Pages could not be parsed:\n" + String.join("\n", failures));
+                    return;
+                }
+                parser.assignOrganizations(authors);
+                sendReport(exchange, format, fileWriter, authors);
+            } catch (RequestTooLargeException e) {
+                sendText(exchange, 413, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                sendText(exchange, 400, e.getMessage());
+            } catch (TimeoutException e) {
+                LOGGER.error("Report request timed out");
+                sendText(exchange, 503, "Parsing timed out");
+            } catch (ExecutionException e) {
+                LOGGER.error("Failed to parse the uploaded pages", e.getCause());
+                sendText(exchange, 500, "Failed to parse the uploaded pages");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sendText(exchange, 503, "Server is shutting down");
+            } finally {
+                admission.release();
+            }
+        }
+    }
+
+    /**
+     * Парсит страницы: небольшие через {@link ParseBatcher}, крупные - отдельными задачами.
+     * Каждая страница ограничена временем на файл парсера; если запрос целиком не уложился
+     * в {@link #REQUEST_TIMEOUT_SECONDS}, результаты отменяются и ещё не начатые страницы не разбираются.
+     *
+     * @param parser Парсер, настроенный для запроса
+     * @param pages  Содержимое страниц
+     * @return Результаты разбора в порядке страниц
+     * @throws ExecutionException   Если парсинг завершился ошибкой
+     * @throws InterruptedException Если поток прерван
+     * @throws TimeoutException     Если парсинг не уложился в отведённое время
+     */
+    private List<ParseOutcome> parsePages(ELibraryParser parser, List<byte[]> pages)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        List<CompletableFuture<ParseOutcome>> futures = new ArrayList<>(pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            byte[] page = pages.get(i);
+            String name = "upload-" + i;
+            if (page.length < SMALL_PAGE_SIZE) {
+                futures.add(batcher.submit(parser, page, name));
+            } else {
+                futures.add(CompletableFuture.supplyAsync(() -> parser.parsePage(page, name), workers));
+            }
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        List<ParseOutcome> outcomes = new ArrayList<>(futures.size());
+        for (CompletableFuture<ParseOutcome> future : futures) {
+            outcomes.add(future.get());
+        }
+        return outcomes;
+    }
+
+    /**
+     * Формирует отчёт в памяти и отправляет его с точной длиной.
+     * Если отчёт сформировать не удалось, отправляется ответ 500 без частично записанного документа.
+     *
+     * @param exchange   HTTP-запрос
+     * @param format     Формат отчёта: docx или json
+     * @param fileWriter Писатель отчёта DOCX
+     * @param authors    Авторы для отчёта
+     * @throws IOException При ошибке записи ответа
+     */
+    private void sendReport(HttpExchange exchange, String format, ELibraryFileWriter fileWriter, List<Author> authors)
+            throws IOException {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        try {
+            if (format.equals("json")) {
+                jsonWriter.write(authors, report);
+            } else {
+                fileWriter.write(authors, report);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to render the report", e);
+            sendText(exchange, 500, "Failed to render the report: " + e.getMessage());
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type",
+                format.equals("json") ? "application/json; charset=utf-8" : DOCX_CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, report.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            report.writeTo(out);
+        }
+    }
+
+    /**
+     * Возвращает писатель отчёта DOCX для запроса. Без рейтинга используется общий писатель,
+     * с рейтингом создаётся отдельный, чтобы настройка не влияла на другие запросы.
+     *
+     * @param ranking Значение параметра {@code ranking} вида {@code показатель:K} или null
+     * @return Писатель отчёта
+     * @throws IllegalArgumentException Если параметр задан неверно
+     */
+    private ELibraryFileWriter fileWriter(String ranking) {
+        if (ranking == null) return defaultFileWriter;
+        int separator = ranking.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid ranking, expected <metric>:<count>: " + ranking);
+        }
+        ELibraryFileWriter writer = new ELibraryFileWriter();
+        writer.setRanking(AuthorMetric.parse(ranking.substring(0, separator)),
+                Integer.parseInt(ranking.substring(separator + 1)));
+        return writer;
+    }
+
+    /**
+     * Читает HTML-страницы из тела запроса: одну страницу или части {@code multipart/form-data}.
+     *
+     * @param exchange HTTP-запрос
+     * @return Содержимое страниц
+     * @throws IOException При ошибке чтения запроса
+     */
+    private List<byte[]> readPages(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange.getRequestBody());
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")) {
+            return splitMultipart(body, boundary(contentType));
+        }
+        return body.length == 0 ? List.of() : List.of(body);
+    }
+
+    /**
+     * Читает тело запроса целиком, ограничивая его размер {@link #MAX_BODY_SIZE}.
+     *
+     * @param in Поток тела запроса
+     * @return Тело запроса
+     * @throws RequestTooLargeException Если тело больше {@link #MAX_BODY_SIZE}
+     * @throws IOException              При ошибке чтения запроса
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > MAX_BODY_SIZE) {
+                throw new RequestTooLargeException();
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Извлекает разделитель частей из заголовка Content-Type.
+     *
+     * @param contentType Значение заголовка Content-Type
+     * @return Разделитель частей
+     */
+    private static String boundary(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.startsWith("boundary=")) {
+                String value = trimmed.substring("boundary=".length());
+                if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                if (!value.isEmpty()) return value;
+            }
+        }
+        throw new IllegalArgumentException("Multipart request without boundary");
+    }
+
+    /**
+     * Разделяет тело {@code multipart/form-data} на части и возвращает их содержимое без заголовков.
+     *
+     * @param body     Тело запроса
+     * @param boundary Разделитель частей
+     * @return Непустые части запроса
+     */
+    static List<byte[]> splitMultipart(byte[] body, String boundary) {
+        byte[] delimiter = ("--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] headerEnd = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        List<byte[]> parts = new ArrayList<>();
+        int start = indexOf(body, delimiter, 0);
+        if (start == -1) throw new IllegalArgumentException("Malformed multipart body");
+        while (true) {
+            int partStart = start + delimiter.length;
+            if (partStart + 1 < body.length && body[partStart] == '-' && body[partStart + 1] == '-') break;
+            int next = indexOf(body, delimiter, partStart);
+            if (next == -1) throw new IllegalArgumentException("Malformed multipart body");
+            int contentStart = indexOf(body, headerEnd, partStart);
+            if (contentStart == -1 || contentStart > next) throw new IllegalArgumentException("Malformed multipart part");
+            contentStart += headerEnd.length;
+            int contentEnd = next - 2;
+            if (contentEnd > contentStart) {
+                parts.add(Arrays.copyOfRange(body, contentStart, contentEnd));
+            }
+            start = next;
+        }
+        return parts;
+    }
+
+    /**
+     * Ищет последовательность байтов в массиве.
+     *
+     * @param data    Массив, в котором выполняется поиск
+     * @param pattern Искомая последовательность
+     * @param from    Индекс начала поиска
+     * @return Индекс начала последовательности или -1
+     */
+    private static int indexOf(byte[] data, byte[] pattern, int from) {
+        outer:
+        for (int i = from; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает значение параметра из строки запроса.
+     *
+     * @param exchange     HTTP-запрос
+     * @param name         Имя параметра
+     * @param defaultValue Значение по умолчанию
+     * @return Значение параметра
+     */
+    private static String queryParameter(HttpExchange exchange, String name, String defaultValue) {
+        String query = exchange.getRequestURI().getQuery();
+        if (query == null) return defaultValue;
+        for (String pair : query.split("&")) {
+            int index = pair.indexOf('=');
+            if (index > 0 && pair.substring(0, index).equals(name)) {
+                return pair.substring(index + 1);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Отправляет текстовый ответ.
+     *
+     * @param exchange HTTP-запрос
+     * @param status   Код ответа
+     * @param message  Текст ответа
+     * @throws IOException При ошибке записи ответа
+     */
+    private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Останавливает сервер и пулы потоков.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        batcher.close();
+        workers.shutdownNow();
+        handlers.shutdownNow();
+        LOGGER.info("Report server stopped");
+    }
+}
@@ -0,0 +1,105 @@
+package com.elibrary.elibrary;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Прогрев классов Jsoup и POI/XMLBeans.
+ * <p>
+ * Графический интерфейс не загружает эти библиотеки при старте: окно появляется сразу, а
+ * {@link #startInBackground()} прогревает их в фоновом потоке, пока пользователь выбирает файлы.
+ * {@link #train(Path)} выполняет полный цикл на примерах и используется для записи архива AppCDS
+ * при сборке образа jlink (задача {@code cdsArchive}).
+ */
+final class ELibraryWarmup {
+    private static final Logger LOGGER = LogManager.getLogger(ELibraryWarmup.class);
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+    /**
+     * Небольшая синтетическая страница списка публикаций для прогрева
+     */
+    private static final String WARMUP_PAGE = "/warmup-page.html";
+    /**
+     * Классы интерфейса, загружаемые при обучающем запуске без запуска JavaFX
+     */
+    private static final String[] GUI_CLASSES = {"javafx.application.Application", "javafx.application.Platform",
+            "javafx.stage.Stage", "javafx.scene.Scene", "javafx.scene.layout.VBox", "javafx.scene.control.Button",
+            "javafx.scene.control.Label", "javafx.scene.control.TextField", "javafx.scene.control.Alert",
+            "javafx.stage.FileChooser", "javafx.stage.DirectoryChooser", "com.elibrary.elibrary.ELibraryGUI"};
+
+    private ELibraryWarmup() {
+    }
+
+    /**
+     * Один раз запускает прогрев в фоновом потоке с низким приоритетом.
+     */
+    static void startInBackground() {
+        if (!STARTED.compareAndSet(false, true)) return;
+        Thread thread = new Thread(ELibraryWarmup::warmUp, "elibrary-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Разбирает небольшую синтетическую страницу из ресурсов ({@link #WARMUP_PAGE})
+     * и формирует по ней отчёт, не записывая его на диск.
+     */
+    private static void warmUp() {
+        long start = System.nanoTime();
+        try (InputStream in = ELibraryWarmup.class.getResourceAsStream(WARMUP_PAGE)) {
+            if (in == null) {
+                LOGGER.warn("Warm-up page not found: " + WARMUP_PAGE);
+                return;
+            }
+            Author author = new ELibraryParser().parseStream(in, "warmup");
+            new ELibraryFileWriter().write(List.of(author), OutputStream.nullOutputStream());
+            LOGGER.debug("Warm-up finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (IOException | RuntimeException | LinkageError e) {
+            LOGGER.warn("Warm-up failed: " + e);
+        }
+    }
+
+    /**
+     * Обучающий запуск для архива AppCDS: разбирает все файлы директории, строит гистограммы и рейтинг,
+     * записывает отчёты DOCX и JSON и загружает классы графического интерфейса.
+     *
+     * @param inputDirectory Директория с примерами страниц
+     * @throws IOException Если не удалось прочитать примеры или записать отчёт
+     */
+    static void train(Path inputDirectory) throws IOException {
+        List<String> paths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(inputDirectory)) {
+            files.filter(Files::isRegularFile).sorted().forEach(path -> paths.add(path.toString()));
+        }
+        ArticleColumnStore store = new ArticleColumnStore();
+        ELibraryParseResult result = new ELibraryParser().parse(paths, store);
+        new YearHistogramAggregator().byDepartment(store);
+        ELibraryFileWriter writer = new ELibraryFileWriter();
+        writer.setRanking(AuthorMetric.INDEX_H, 20);
+        Path report = Files.createTempFile("elibrary-training", ".docx");
+        try {
+            writer.write(result.authors(), report);
+        } finally {
+            Files.deleteIfExists(report);
+        }
+        new ELibraryJsonWriter().write(result.authors(), OutputStream.nullOutputStream());
+        for (String className : GUI_CLASSES) {
+            try {
+                Class.forName(className, false, ELibraryWarmup.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOGGER.warn("Could not load " + className + ": " + e);
+            }
+        }
+        LOGGER.info("Training run parsed " + result.authors().size() + " authors");
+    }
+}
@@ -0,0 +1,202 @@
+package com.elibrary.elibrary;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.parser.Parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Контекст чтения HTML-страниц, свой для каждого потока ({@link #current()}).
+ * <p>
+ * Переиспользует между файлами экземпляр парсера Jsoup (без отслеживания ошибок и позиций узлов),
+ * буфер, в который читается страница, и поток над этим буфером, поэтому на файл не создаются новые
+ * парсер, массивы для чтения и потоки. Кодировка по-прежнему определяется Jsoup по BOM или тегу meta.
+ * Буфер, выросший больше {@link #MAX_RETAINED_BYTES}, заменяется начальным при следующем чтении, чтобы одна
+ * большая страница не удерживала память потока надолго. Страница больше {@link #MAX_PAGE_BYTES} не дочитывается:
+ * чтение завершается {@link PageTooLargeException}.
+ */
+final class HtmlPageReader {
+    /**
+     * Начальный размер буфера страницы
+     */
+    private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+    /**
+     * Максимальный размер буфера, сохраняемого между файлами
+     */
+    private static final int MAX_RETAINED_BYTES = 4 * 1024 * 1024;
+    /**
+     * Максимальный размер страницы, если при чтении не задан меньший
+     */
+    static final int MAX_PAGE_BYTES = 64 * 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+    private static final ThreadLocal<HtmlPageReader> CURRENT = ThreadLocal.withInitial(HtmlPageReader::new);
+
+    private final Parser parser = Parser.htmlParser().setTrackErrors(0).setTrackPosition(false);
+    private final ReusableInputStream input = new ReusableInputStream();
+    private byte[] buffer = new byte[INITIAL_BUFFER_BYTES];
+    /**
+     * Количество значимых байт в {@link #buffer} после последнего чтения
+     */
+    private int length;
+
+    private HtmlPageReader() {
+    }
+
+    /**
+     * Возвращает контекст текущего потока.
+     *
+     * @return Контекст чтения
+     */
+    static HtmlPageReader current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Читает файл целиком в буфер контекста.
+     *
+     * @param path Путь к файлу
+     * @throws PageTooLargeException Если файл больше {@link #MAX_PAGE_BYTES}
+     * @throws IOException           При ошибке чтения
+     */
+    void read(Path path) throws IOException {
+        read(path, MAX_PAGE_BYTES);
+    }
+
+    /**
+     * Читает файл целиком в буфер контекста, если его размер не превышает заданного.
+     * Для записи zip-архива размер сначала проверяется по заголовку записи, а затем при распаковке,
+     * поскольку заголовок может не соответствовать данным.
+     *
+     * @param path     Путь к файлу или к записи архива
+     * @param maxBytes Максимальный размер страницы в байтах
+     * @throws PageTooLargeException Если страница больше {@code maxBytes}
+     * @throws IOException           При ошибке чтения
+     */
+    void read(Path path, int maxBytes) throws IOException {
+        if (Files.size(path) > maxBytes) {
+            throw new PageTooLargeException(maxBytes);
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            read(in, maxBytes);
+        }
+    }
+
+    /**
+     * Читает поток до конца в буфер контекста. Поток не закрывается.
+     *
+     * @param in Поток
+     * @throws PageTooLargeException Если страница больше {@link #MAX_PAGE_BYTES}
+     * @throws IOException           При ошибке чтения
+     */
+    void read(InputStream in) throws IOException {
+        read(in, MAX_PAGE_BYTES);
+    }
+
+    /**
+     * Читает поток до конца в буфер контекста, прекращая чтение, как только страница превысит заданный размер.
+     * Поток не закрывается.
+     *
+     * @param in       Поток
+     * @param maxBytes Максимальный размер страницы в байтах
+     * @throws PageTooLargeException Если страница больше {@code maxBytes}
+     * @throws IOException           При ошибке чтения
+     */
+    void read(InputStream in, int maxBytes) throws IOException {
+        if (buffer.length > MAX_RETAINED_BYTES) {
+            buffer = new byte[INITIAL_BUFFER_BYTES];
+        }
+        length = 0;
+        int count;
+        while ((count = in.read(buffer, length, buffer.length - length)) >= 0) {
+            length += count;
+            if (length > maxBytes) {
+                length = 0;
+                throw new PageTooLargeException(maxBytes);
+            }
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, maxBytes + 1L));
+            }
+        }
+    }
+
+    /**
+     * Возвращает буфер с последней прочитанной страницей. Значимы первые {@link #length()} байт.
+     *
+     * @return Буфер контекста
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * Возвращает количество байт последней прочитанной страницы.
+     *
+     * @return Количество байт
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Строит документ по странице, прочитанной в буфер.
+     *
+     * @param baseUri Базовый адрес документа
+     * @return Документ
+     * @throws IOException При ошибке декодирования
+     */
+    Document parse(String baseUri) throws IOException {
+        return parse(buffer, length, baseUri);
+    }
+
+    /**
+     * Строит документ по странице в памяти.
+     *
+     * @param page    Содержимое страницы
+     * @param length  Количество значимых байт
+     * @param baseUri Базовый адрес документа
+     * @return Документ
+     * @throws IOException При ошибке декодирования
+     */
+    Document parse(byte[] page, int length, String baseUri) throws IOException {
+        input.reset(page, length);
+        try {
+            Document document = Jsoup.parse(input, null, baseUri, parser);
+            document.outputSettings().prettyPrint(false);
+            return document;
+        } finally {
+            input.reset(null, 0);
+        }
+    }
+
+    /**
+     * Страница больше допустимого размера. Чтение прекращается, не дочитав страницу.
+     */
+    static final class PageTooLargeException extends IOException {
+        PageTooLargeException(int maxBytes) {
+            super("Page exceeds " + maxBytes / (1024 * 1024) + " MB");
+        }
+    }
+
+    /**
+     * Поток над внешним массивом, который можно перенаправить на другой массив без создания нового потока.
+     */
+    private static final class ReusableInputStream extends ByteArrayInputStream {
+        ReusableInputStream() {
+            super(EMPTY);
+        }
+
+        void reset(byte[] bytes, int length) {
+            this.buf = bytes != null ? bytes : EMPTY;
+            this.pos = 0;
+            this.mark = 0;
+            this.count = length;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.elibrary.elibrary;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Класс ParseBatcher объединяет небольшие HTML-страницы, пришедшие почти одновременно, в пачку
+ * и отправляет её в пул потоков. Пачка делится не более чем на {@code parallelism} частей, каждая часть -
+ * одна задача пула, которая разбирает свои страницы подряд. Так небольшие страницы не становятся
+ * отдельными задачами, а пачка из многих страниц по-прежнему разбирается на всех потоках пула.
+ * Пачка отправляется, когда набрано {@code maxBatchSize} страниц или истекло окно ожидания
+ * с момента прихода первой страницы. Страницы, результат которых уже отменён, пропускаются.
+ */
+class ParseBatcher implements Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(ParseBatcher.class);
+
+    /**
+     * Страница, ожидающая парсинга, и результат, который получит отправитель.
+     *
+     * @param parser Парсер, настроенный для запроса
+     * @param html   Содержимое страницы
+     * @param name   Имя страницы для логов
+     * @param result Результат парсинга
+     */
+    private record Job(ELibraryParser parser, byte[] html, String name, CompletableFuture<ParseOutcome> result) {
+    }
+
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final BlockingQueue<Job> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    /**
+     * Защищает {@link #closed} и добавление в {@link #queue}: после закрытия страница не может попасть
+     * в очередь, которую уже никто не разберёт.
+     */
+    private final Object lock = new Object();
+    private volatile boolean closed;
+
+    /**
+     * Создаёт и запускает объединитель пачек.
+     *
+     * @param workers      Пул потоков, в котором выполняются пачки
+     * @param parallelism  Количество потоков пула, на которые делится пачка
+     * @param maxBatchSize Максимальное количество страниц в пачке
+     * @param windowMillis Окно ожидания в миллисекундах
+     */
+    ParseBatcher(ExecutorService workers, int parallelism, int maxBatchSize, long windowMillis) {
+        this.workers = workers;
+        this.parallelism = Math.max(1, parallelism);
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.dispatcher = new Thread(this::dispatchLoop, "parse-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Ставит страницу в очередь на парсинг.
+     *
+     * @param parser Парсер, настроенный для запроса
+     * @param html   Содержимое страницы
+     * @param name   Имя страницы для логов
+     * @return Будущий результат парсинга ({@link ELibraryParser#parsePage(byte[], String)})
+     */
+    CompletableFuture<ParseOutcome> submit(ELibraryParser parser, byte[] html, String name) {
+        CompletableFuture<ParseOutcome> result = new CompletableFuture<>();
+        synchronized (lock) {
+            if (!closed) {
+                queue.add(new Job(parser, html, name, result));
+                return result;
+            }
+        }
+        result.completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+        return result;
+    }
+
+    /**
+     * Собирает пачки из очереди и отправляет их в пул потоков.
+     */
+    private void dispatchLoop() {
+        List<Job> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!closed) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    Job next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                dispatch(List.copyOf(batch));
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        batch.addAll(queue);
+        for (Job job : batch) {
+            job.result().completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+        }
+    }
+
+    /**
+     * Делит пачку на части по числу потоков и отправляет каждую часть в пул одной задачей.
+     *
+     * @param batch Пачка страниц
+     */
+    private void dispatch(List<Job> batch) {
+        int chunks = Math.min(parallelism, batch.size());
+        LOGGER.debug("Dispatching a batch of " + batch.size() + " pages as " + chunks + " tasks");
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            List<Job> jobs = batch.subList(batch.size() * chunk / chunks, batch.size() * (chunk + 1) / chunks);
+            try {
+                workers.execute(() -> jobs.forEach(this::run));
+            } catch (RejectedExecutionException e) {
+                jobs.forEach(job -> job.result().completeExceptionally(e));
+            }
+        }
+    }
+
+    /**
+     * Парсит одну страницу, ошибка страницы не влияет на остальные.
+     * Страница, результат которой уже завершён (например, отменён по таймауту запроса), не разбирается.
+     *
+     * @param job Страница
+     */
+    private void run(Job job) {
+        if (job.result().isDone()) return;
+        try {
+            job.result().complete(job.parser().parsePage(job.html(), job.name()));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to parse the page: " + job.name());
+            job.result().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Останавливает объединитель, ожидающие страницы завершаются ошибкой.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        dispatcher.interrupt();
+    }
+}
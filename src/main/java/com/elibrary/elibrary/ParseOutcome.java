@@ -0,0 +1,58 @@
+package com.elibrary.elibrary;
+
+import java.util.List;
+
+/**
+ * Результат парсинга одного входного файла.
+ *
+ * @param source        Путь или имя входного файла
+ * @param status        Итог парсинга
+ * @param author        Полученный автор; null, если парсинг не удался
+ * @param reasons       Причины, по которым файл разобран частично или не разобран
+ * @param elapsedMillis Время парсинга в миллисекундах
+ */
+public record ParseOutcome(String source, Status status, Author author, List<String> reasons, long elapsedMillis) {
+
+    /**
+     * Итог парсинга файла.
+     */
+    public enum Status {
+        /**
+         * Файл разобран полностью.
+         */
+        OK,
+        /**
+         * Автор получен, но часть данных не найдена или пропущена.
+         */
+        PARTIAL,
+        /**
+         * Файл не разобран, автор не получен.
+         */
+        FAILED
+    }
+
+    /**
+     * Создаёт результат, копируя список причин.
+     *
+     * @param source        Путь или имя входного файла
+     * @param status        Итог парсинга
+     * @param author        Полученный автор; null, если парсинг не удался
+     * @param reasons       Причины, по которым файл разобран частично или не разобран
+     * @param elapsedMillis Время парсинга в миллисекундах
+     */
+    public ParseOutcome {
+        reasons = List.copyOf(reasons);
+    }
+
+    /**
+     * Создаёт результат неудачного парсинга.
+     *
+     * @param source        Путь или имя входного файла
+     * @param reason        Причина
+     * @param elapsedMillis Время парсинга в миллисекундах
+     * @return Результат со статусом {@link Status#FAILED}
+     */
+    static ParseOutcome failed(String source, String reason, long elapsedMillis) {
+        return new ParseOutcome(source, Status.FAILED, null, List.of(reason), elapsedMillis);
+    }
+}
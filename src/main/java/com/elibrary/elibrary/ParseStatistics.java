@@ -0,0 +1,174 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики хода парсинга, которые обновляются потоками {@link ELibraryParser} и читаются панелью
+ * графического интерфейса с фиксированной частотой.
+ * <p>
+ * Счётчики построены на {@link LongAdder}, поэтому потоки пула не конкурируют друг с другом за одну ячейку
+ * памяти, а чтение никогда не блокирует парсинг. Самые медленные файлы хранятся в небольшой куче под
+ * блокировкой, но блокировка берётся только тогда, когда файл медленнее текущего порога списка, то есть
+ * для малой доли файлов.
+ */
+public final class ParseStatistics {
+    /**
+     * Количество самых медленных файлов по умолчанию
+     */
+    private static final int DEFAULT_SLOWEST_COUNT = 10;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder finished = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final int slowestCount;
+    private final PriorityQueue<SlowFile> slowest = new PriorityQueue<>(Comparator.comparingLong(SlowFile::nanos));
+    /**
+     * Время самого быстрого файла в заполненном списке медленных; файлы быстрее него в список не попадают
+     */
+    private volatile long slowestThreshold;
+
+    /**
+     * Время разбора одного файла.
+     *
+     * @param source Имя источника
+     * @param nanos  Время разбора в наносекундах
+     */
+    public record SlowFile(String source, long nanos) {
+    }
+
+    /**
+     * Создаёт счётчики, запоминающие 10 самых медленных файлов.
+     */
+    public ParseStatistics() {
+        this(DEFAULT_SLOWEST_COUNT);
+    }
+
+    /**
+     * Создаёт счётчики.
+     *
+     * @param slowestCount Количество запоминаемых самых медленных файлов
+     */
+    public ParseStatistics(int slowestCount) {
+        if (slowestCount < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + slowestCount);
+        }
+        this.slowestCount = slowestCount;
+    }
+
+    /**
+     * Файл поставлен в очередь пула.
+     */
+    void fileSubmitted() {
+        submitted.increment();
+    }
+
+    /**
+     * Поток пула начал разбор файла.
+     */
+    void fileStarted() {
+        started.increment();
+    }
+
+    /**
+     * Поток пула закончил разбор файла.
+     *
+     * @param source Имя источника
+     * @param nanos  Время разбора в наносекундах
+     * @param status Результат разбора
+     */
+    void fileFinished(String source, long nanos, ParseOutcome.Status status) {
+        parseNanos.add(nanos);
+        if (status == ParseOutcome.Status.FAILED) failed.increment();
+        finished.increment();
+        if (slowestCount > 0 && nanos > slowestThreshold) {
+            recordSlow(new SlowFile(source, nanos));
+        }
+    }
+
+    private synchronized void recordSlow(SlowFile file) {
+        if (slowest.size() < slowestCount) {
+            slowest.add(file);
+        } else if (file.nanos() > slowest.peek().nanos()) {
+            slowest.poll();
+            slowest.add(file);
+        }
+        if (slowest.size() == slowestCount) {
+            slowestThreshold = slowest.peek().nanos();
+        }
+    }
+
+    /**
+     * Возвращает количество файлов, поставленных в очередь.
+     *
+     * @return Количество файлов
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Возвращает количество разобранных файлов, включая неудачные.
+     *
+     * @return Количество файлов
+     */
+    public long getFinished() {
+        return finished.sum();
+    }
+
+    /**
+     * Возвращает количество файлов, которые не удалось разобрать.
+     *
+     * @return Количество файлов
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Возвращает количество файлов, ожидающих свободного потока.
+     * Счётчики читаются без блокировки, поэтому значение приблизительное.
+     *
+     * @return Длина очереди
+     */
+    public long getQueued() {
+        long startedFiles = started.sum();
+        return Math.max(0, submitted.sum() - startedFiles);
+    }
+
+    /**
+     * Возвращает количество файлов, разбираемых в данный момент.
+     * Счётчики читаются без блокировки, поэтому значение приблизительное.
+     *
+     * @return Количество файлов в работе
+     */
+    public long getRunning() {
+        long finishedFiles = finished.sum();
+        return Math.max(0, started.sum() - finishedFiles);
+    }
+
+    /**
+     * Возвращает суммарное время разбора файлов всеми потоками.
+     *
+     * @return Время в наносекундах
+     */
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+
+    /**
+     * Возвращает самые медленные файлы.
+     *
+     * @return Файлы в порядке убывания времени разбора
+     */
+    public synchronized List<SlowFile> getSlowest() {
+        List<SlowFile> files = new ArrayList<>(slowest);
+        files.sort(Comparator.comparingLong(SlowFile::nanos).reversed());
+        return files;
+    }
+}
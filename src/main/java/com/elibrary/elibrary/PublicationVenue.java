@@ -0,0 +1,103 @@
+package com.elibrary.elibrary;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Структурированное место публикации статьи, разобранное из строки вида
+ * "Журнал. 2014. Т. 2. № 10. С. 151-152.".
+ * Отсутствующие части равны пустой строке, неизвестный год равен 0.
+ *
+ * @param journal Журнал, сборник или издательство
+ * @param year    Год публикации или 0
+ * @param volume  Том
+ * @param issue   Номер выпуска
+ * @param pages   Страницы
+ */
+public record PublicationVenue(String journal, int year, String volume, String issue, String pages) {
+    private static final String SPACE = "[\\s\\u00a0]*";
+    private static final Pattern YEAR = Pattern.compile("(?<![\\d.])(?:\\d{1,2}\\.\\d{1,2}\\.)?((?:19|20)\\d{2})(?![\\d-])");
+    private static final Pattern VOLUME = Pattern.compile("(?<![А-Яа-яЁё])Т\\." + SPACE + "(\\d+)");
+    private static final Pattern ISSUE = Pattern.compile("№" + SPACE + "([\\dА-Яа-яЁёA-Za-z/-]+)");
+    private static final Pattern PAGES = Pattern.compile("(?<![А-Яа-яЁё])С\\." + SPACE + "(\\d+(?:-\\d+)?)");
+    private static final String COLLECTION_PREFIX = "В сборнике:";
+
+    /**
+     * Место публикации без распознанных частей.
+     */
+    public static final PublicationVenue UNKNOWN = new PublicationVenue("", 0, "", "", "");
+
+    /**
+     * Разбирает строку места публикации.
+     *
+     * @param placeOfPublication Место публикации, как оно указано на странице
+     * @return Разобранное место публикации
+     */
+    public static PublicationVenue parse(String placeOfPublication) {
+        if (placeOfPublication == null || placeOfPublication.isBlank()) return UNKNOWN;
+        String line = placeOfPublication.strip();
+        Matcher year = findYear(line);
+        int yearValue = 0;
+        String journal = line;
+        if (year != null) {
+            yearValue = Integer.parseInt(year.group(1));
+            journal = line.substring(0, year.start());
+        }
+        return new PublicationVenue(cleanJournal(journal), yearValue,
+                group(VOLUME, line), group(ISSUE, line), group(PAGES, line));
+    }
+
+    /**
+     * Ищет год публикации. Предпочтение отдаётся году, которым заканчивается часть строки
+     * ("..., 2020." или "... 2020" в конце строки), чтобы не принять за год публикации
+     * год из названия конференции, например "(АПИНО 2023)".
+     *
+     * @param line Место публикации
+     * @return Совпадение с годом или null, если год не найден
+     */
+    private static Matcher findYear(String line) {
+        Matcher matcher = YEAR.matcher(line);
+        int firstStart = -1;
+        while (matcher.find()) {
+            if (firstStart == -1) firstStart = matcher.start();
+            int next = matcher.end();
+            while (next < line.length() && Character.isWhitespace(line.charAt(next))) {
+                next++;
+            }
+            if (next == line.length() || line.charAt(next) == '.') return matcher;
+        }
+        if (firstStart == -1) return null;
+        matcher.find(firstStart);
+        return matcher;
+    }
+
+    /**
+     * Убирает из названия журнала префикс сборника и завершающие знаки препинания.
+     *
+     * @param journal Часть строки до года
+     * @return Название журнала
+     */
+    private static String cleanJournal(String journal) {
+        String result = journal.strip();
+        if (result.startsWith(COLLECTION_PREFIX)) {
+            result = result.substring(COLLECTION_PREFIX.length()).strip();
+        }
+        int end = result.length();
+        while (end > 0 && ".,;:/  ".indexOf(result.charAt(end - 1)) != -1) {
+            end--;
+        }
+        return result.substring(0, end);
+    }
+
+    /**
+     * Возвращает первую группу первого совпадения шаблона.
+     *
+     * @param pattern Шаблон
+     * @param line    Строка
+     * @return Найденное значение или пустая строка
+     */
+    private static String group(Pattern pattern, String line) {
+        Matcher matcher = pattern.matcher(line);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+}
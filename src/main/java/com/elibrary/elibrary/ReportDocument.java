@@ -0,0 +1,373 @@
+package com.elibrary.elibrary;
+
+import org.apache.poi.xwpf.usermodel.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Класс ReportDocument представляет один документ Word с отчётом.
+ * Создаётся заново для каждой записи {@link ELibraryFileWriter}, поэтому повторная запись
+ * не дублирует содержимое. Хранит текущий абзац и текстовый блок и не предназначен
+ * для использования из нескольких потоков.
+ * <p>
+ * Если задан {@link ReportTemplate}, информация об авторах записывается по шаблону,
+ * иначе - в оформлении по умолчанию. Разделы рейтинга и изменений всегда используют оформление по умолчанию.
+ */
+class ReportDocument implements Closeable {
+    private final XWPFDocument document;
+    private final ReportTemplate template;
+    private XWPFParagraph paragraph;
+    private XWPFRun run;
+
+    /**
+     * Создаёт пустой документ с оформлением по умолчанию.
+     */
+    ReportDocument() {
+        this.document = new XWPFDocument();
+        this.template = null;
+    }
+
+    /**
+     * Создаёт пустой документ по шаблону: со стилями и параметрами страницы шаблона.
+     *
+     * @param template Шаблон отчёта
+     * @throws IOException При ошибке чтения шаблона
+     */
+    ReportDocument(ReportTemplate template) throws IOException {
+        this.document = template.newDocument();
+        this.template = template;
+    }
+
+    /**
+     * Создает новый абзац и инициализирует новый текстовый блок с настройками шрифта по умолчанию.
+     * <p>
+     * Шрифт по умолчанию установлен как "Times New Roman", размер шрифта - 14.
+     */
+    private void createNewParagraph() {
+        paragraph = document.createParagraph();
+        run = paragraph.createRun();
+        run.setFontFamily("TimesNewRoman");
+        run.setFontSize(14);
+    }
+
+    /**
+     * Записывает имя автора в документ, выделяя его жирным шрифтом и устанавливая центрирование.
+     *
+     * @param author Автор, чье имя будет записано в документ.
+     */
+    private void writeAuthorName(Author author) {
+        createNewParagraph();
+        paragraph.setAlignment(ParagraphAlignment.CENTER);
+        run.setBold(true);
+        run.setFontSize(18);
+        run.setText(author.getName());
+    }
+
+    /**
+     * Записывает заголовок статьи в документ, добавляя нижнюю границу, делая текст жирным и устанавливая размер шрифта.
+     *
+     * @param article Статья, заголовок которой будет записан в документ.
+     */
+    private void writeArticleTitle(ArticleWithZeroCitations article) {
+        createNewParagraph();
+        paragraph.setBorderBottom(Borders.APPLES);
+        run.setBold(true);
+        run.setFontSize(14);
+        run.setText(article.title());
+    }
+
+    /**
+     * Записывает совместных авторов статьи в документ, устанавливая размер шрифта для текста.
+     *
+     * @param article Статья, совместные авторы которой будут записаны в документ.
+     */
+    private void writeJointsAuthors(ArticleWithZeroCitations article) {
+        createNewParagraph();
+        run.setFontSize(12);
+        run.setText(article.jointAuthors());
+    }
+
+
+    /**
+     * Записывает место публикации статьи в документ, устанавливая размер шрифта для текста.
+     *
+     * @param article Статья, место публикации которой будет записано в документ.
+     */
+    private void writePlaceOfPublication(ArticleWithZeroCitations article) {
+        createNewParagraph();
+        run.setFontSize(12);
+        run.setText(article.placeOfPublication());
+    }
+
+    /**
+     * Записывает количество цитирований статьи в документ.
+     * Для статей с нулевым цитированием строка не записывается, чтобы отчёт по умолчанию не менялся.
+     *
+     * @param article Статья, количество цитирований которой будет записано в документ.
+     */
+    private void writeArticleCitations(ArticleWithZeroCitations article) {
+        if (article.citations() == 0) return;
+        createNewParagraph();
+        run.setFontSize(12);
+        run.setText("Цитирований: " + article.citations());
+    }
+
+    /**
+     * Записывает место работы автора в документ, устанавливая выравнивание по центру и размер шрифта для текста.
+     * Также добавляет разрыв после записи.
+     *
+     * @param author Автор, место работы которого будет записано в документ.
+     */
+    private void writePlaceOfWork(Author author) {
+        createNewParagraph();
+        paragraph.setAlignment(ParagraphAlignment.CENTER);
+        run.setFontSize(12);
+        run.setText(author.getPlaceOfWork());
+        run.addBreak();
+    }
+
+    /**
+     * Записывает индекс Хирша автора в документ, делая текст жирным.
+     *
+     * @param author Автор, индекс Хирша которого будет записан в документ.
+     */
+    private void writeIndexH(Author author) {
+        createNewParagraph();
+        run.setBold(true);
+        run.setText("Индекс Хирша: " + author.getIndexH());
+    }
+
+    private void writeNumberOfPublications(Author author) {
+        createNewParagraph();
+        run.setBold(true);
+        run.setText("Количество статей: " + author.getNumberOfPublications());
+    }
+
+    /**
+     * Записывает количество статей с нулевым цитированием автора в документ, делая текст жирным.
+     *
+     * @param author Автор, для которого будет записано количество статей с нулевым цитированием.
+     */
+    private void writeNumberOfZeroCitations(Author author) {
+        createNewParagraph();
+        run.setBold(true);
+        run.setText("Количество статей с нулевым цитированием: " + author.getNumberOfZeroCitations());
+    }
+
+    /**
+     * Записывает информацию об авторах и их статьях в документ.
+     * Использует {@link ReportTemplate#render(XWPFDocument, Author)}, если задан шаблон,
+     * иначе - {@link #writeAuthorInformation(Author)}
+     *
+     * @param authors Авторы, информацию о которых необходимо записать.
+     * @param written Вызывается для каждого записанного автора, чтобы собрать сведения за тот же обход
+     */
+    void writeAllInformation(Iterable<Author> authors, Consumer<Author> written) {
+        for (Author author : authors) {
+            written.accept(author);
+            if (template != null) {
+                run = template.render(document, author);
+                if (run == null) createNewParagraph();
+            } else {
+                writeAuthorInformation(author);
+                writeArticlesInformation(author);
+            }
+            run.addBreak(BreakType.PAGE);
+        }
+    }
+
+    /**
+     * Записывает информацию о конкретном авторе в документ.
+     *
+     * @param author Автор, информацию о котором необходимо записать.
+     */
+    private void writeAuthorInformation(Author author) {
+        writeAuthorName(author);
+        writePlaceOfWork(author);
+        writeIndexH(author);
+        writeNumberOfPublications(author);
+        writeNumberOfZeroCitations(author);
+        run.addBreak(BreakType.TEXT_WRAPPING);
+    }
+
+    /**
+     * Записывает информацию о статьях автора в документ.
+     *
+     * @param author Автор, статьи которого необходимо записать.
+     */
+    private void writeArticlesInformation(Author author) {
+        for (ArticleWithZeroCitations article : author.getArticles()) {
+            writeArticleTitle(article);
+            writeJointsAuthors(article);
+            writePlaceOfPublication(article);
+            writeArticleCitations(article);
+            run.addBreak(BreakType.TEXT_WRAPPING);
+        }
+    }
+
+    /**
+     * Записывает раздел с рейтингами авторов: общий рейтинг и рейтинги по организациям.
+     *
+     * @param metric  Показатель рейтинга
+     * @param overall Общий рейтинг, полученный {@link AuthorRanking#top(Iterable, AuthorMetric, int)}
+     * @param byPlace Рейтинги по организациям
+     */
+    void writeRankingSection(AuthorMetric metric, List<Author> overall, Map<String, List<Author>> byPlace) {
+        createNewParagraph();
+        paragraph.setAlignment(ParagraphAlignment.CENTER);
+        run.setBold(true);
+        run.setFontSize(18);
+        run.setText("Рейтинг авторов: " + metric.getTitle());
+        writeRankingTable(metric, overall, true);
+        if (byPlace.size() < 2) return;
+        for (Map.Entry<String, List<Author>> entry : byPlace.entrySet()) {
+            createNewParagraph();
+            run.addBreak();
+            run.setBold(true);
+            run.setText(entry.getKey());
+            writeRankingTable(metric, entry.getValue(), false);
+        }
+    }
+
+    /**
+     * Записывает таблицу рейтинга.
+     *
+     * @param metric           Показатель рейтинга
+     * @param ranked           Авторы в порядке рейтинга
+     * @param withPlaceOfWork  Добавлять ли столбец с местом работы
+     */
+    private void writeRankingTable(AuthorMetric metric, List<Author> ranked, boolean withPlaceOfWork) {
+        int columns = withPlaceOfWork ? 4 : 3;
+        XWPFTable table = document.createTable(ranked.size() + 1, columns);
+        table.setWidth("100%");
+        List<String> header = withPlaceOfWork
+                ? List.of("№", "Автор", "Место работы", metric.getTitle())
+                : List.of("№", "Автор", metric.getTitle());
+        for (int column = 0; column < columns; column++) {
+            table.getRow(0).getCell(column).setText(header.get(column));
+        }
+        for (int i = 0; i < ranked.size(); i++) {
+            Author author = ranked.get(i);
+            XWPFTableRow row = table.getRow(i + 1);
+            row.getCell(0).setText(String.valueOf(i + 1));
+            row.getCell(1).setText(author.getName());
+            if (withPlaceOfWork) row.getCell(2).setText(author.getPlaceOfWork());
+            row.getCell(columns - 1).setText(String.valueOf(metric.value(author)));
+        }
+    }
+
+    /**
+     * Записывает раздел с изменениями по сравнению с предыдущим снимком.
+     * Авторы без изменений в раздел не попадают.
+     *
+     * @param deltas Изменения авторов, полученные {@link AuthorSnapshotDiff}
+     */
+    void writeDeltaSection(List<AuthorDelta> deltas) {
+        createNewParagraph();
+        paragraph.setAlignment(ParagraphAlignment.CENTER);
+        run.setBold(true);
+        run.setFontSize(18);
+        run.setText("Изменения по сравнению с предыдущим снимком");
+        run.addBreak();
+        for (AuthorDelta delta : deltas) {
+            if (delta.change() == AuthorDelta.Change.UNCHANGED) continue;
+            writeDeltaAuthor(delta);
+            if (delta.change() != AuthorDelta.Change.CHANGED) continue;
+            writeDeltaLine("Индекс Хирша", delta.indexHBefore(), delta.indexHAfter());
+            writeDeltaLine("Количество статей", delta.publicationsBefore(), delta.publicationsAfter());
+            writeDeltaLine("Количество статей с нулевым цитированием",
+                    delta.zeroCitationsBefore(), delta.zeroCitationsAfter());
+            writeDeltaArticles("Новые статьи: ", delta.newArticles());
+            writeDeltaArticles("Получили первое цитирование: ", delta.firstCited());
+            run.addBreak(BreakType.TEXT_WRAPPING);
+        }
+    }
+
+    /**
+     * Записывает имя автора в разделе изменений, отмечая добавленных и выбывших авторов.
+     *
+     * @param delta Изменения автора
+     */
+    private void writeDeltaAuthor(AuthorDelta delta) {
+        createNewParagraph();
+        paragraph.setBorderBottom(Borders.APPLES);
+        run.setBold(true);
+        switch (delta.change()) {
+            case ADDED -> run.setText(delta.name() + " - новый автор (статей: " + delta.publicationsAfter()
+                    + ", индекс Хирша: " + delta.indexHAfter() + ")");
+            case REMOVED -> run.setText(delta.name() + " - отсутствует в новом снимке");
+            default -> run.setText(delta.name());
+        }
+    }
+
+    /**
+     * Записывает изменение одного показателя в виде "было → стало (разница)".
+     *
+     * @param label  Название показателя
+     * @param before Старое значение
+     * @param after  Новое значение
+     */
+    private void writeDeltaLine(String label, int before, int after) {
+        if (before == after) return;
+        createNewParagraph();
+        run.setFontSize(12);
+        run.setText(label + ": " + before + " → " + after + " (" + (after > before ? "+" : "") + (after - before) + ")");
+    }
+
+    /**
+     * Записывает список названий статей с подписью.
+     *
+     * @param label    Подпись списка
+     * @param articles Статьи
+     */
+    private void writeDeltaArticles(String label, List<ArticleWithZeroCitations> articles) {
+        if (articles.isEmpty()) return;
+        createNewParagraph();
+        run.setFontSize(12);
+        run.setBold(true);
+        run.setText(label + articles.size());
+        for (ArticleWithZeroCitations article : articles) {
+            createNewParagraph();
+            run.setFontSize(12);
+            run.setText(article.title() + (article.citations() > 0 ? " (цитирований: " + article.citations() + ")" : ""));
+        }
+    }
+
+    /**
+     * Проверяет, пуст ли документ. Документ пуст, если ни в одном фрагменте нет текста;
+     * фрагменты без текста (например, с разрывом страницы) не учитываются.
+     *
+     * @return true, если документ пуст, в противном случае - false.
+     */
+    boolean isEmpty() {
+        for (XWPFParagraph paragraph : document.getParagraphs()) {
+            for (XWPFRun run : paragraph.getRuns()) {
+                String text = run.text();
+                if (text != null && !text.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Записывает содержимое документа в поток.
+     *
+     * @param out Поток, в который будет записан документ.
+     * @throws IOException Если возникают проблемы при записи в поток.
+     */
+    void write(OutputStream out) throws IOException {
+        document.write(out);
+    }
+
+    @Override
+    public void close() throws IOException {
+        document.close();
+    }
+}
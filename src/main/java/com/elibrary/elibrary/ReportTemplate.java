@@ -0,0 +1,333 @@
+package com.elibrary.elibrary;
+
+import org.apache.poi.xwpf.usermodel.Borders;
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Шаблон отчёта по авторам - документ Word с подстановками вида {@code {{name}}}.
+ * <p>
+ * Абзацы шаблона повторяются для каждого автора. Абзацы между строками {@code {{#articles}}} и
+ * {@code {{/articles}}} повторяются для каждой статьи автора. Оформление абзацев (стиль, выравнивание,
+ * нижняя граница, отступ после) и текстовых блоков (шрифт, размер, начертание, цвет, подчёркивание)
+ * переносится в отчёт; подстановка получает оформление блока, в котором она начинается, поэтому
+ * Word может разбивать её на несколько блоков. Стили, поля страницы и колонтитулы берутся из шаблона.
+ * Таблицы и рисунки шаблона в отчёт не переносятся.
+ * <p>
+ * Шаблон разбирается один раз ({@link #compile(Path)}) в план: списки абзацев с готовым оформлением
+ * и подстановками, уже сопоставленными с полями автора и статьи. Для каждого автора план только применяется
+ * ({@link #render(XWPFDocument, Author)}). План неизменяем, поэтому один шаблон можно использовать
+ * из нескольких потоков одновременно.
+ *
+ * @see ELibraryFileWriter#setTemplate(ReportTemplate)
+ * @see ELibraryFileWriter#writeTemplates(Iterable, java.util.Map)
+ */
+public final class ReportTemplate {
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final String ARTICLES_START = "{{#articles}}";
+    private static final String ARTICLES_END = "{{/articles}}";
+
+    /**
+     * Исходный документ шаблона, из которого создаются пустые документы отчётов с его стилями
+     */
+    private final byte[] source;
+    private final ParagraphPlan[] header;
+    private final ParagraphPlan[] article;
+    private final ParagraphPlan[] footer;
+
+    private ReportTemplate(byte[] source, ParagraphPlan[] header, ParagraphPlan[] article, ParagraphPlan[] footer) {
+        this.source = source;
+        this.header = header;
+        this.article = article;
+        this.footer = footer;
+    }
+
+    /**
+     * Разбирает шаблон из файла .docx.
+     *
+     * @param file Файл шаблона
+     * @return Скомпилированный шаблон
+     * @throws IOException При ошибке чтения или неверной подстановке в шаблоне
+     */
+    public static ReportTemplate compile(Path file) throws IOException {
+        return compile(Files.readAllBytes(file));
+    }
+
+    /**
+     * Разбирает шаблон из потока. Поток не закрывается.
+     *
+     * @param in Поток с документом .docx
+     * @return Скомпилированный шаблон
+     * @throws IOException При ошибке чтения или неверной подстановке в шаблоне
+     */
+    public static ReportTemplate compile(InputStream in) throws IOException {
+        return compile(in.readAllBytes());
+    }
+
+    private static ReportTemplate compile(byte[] source) throws IOException {
+        List<ParagraphPlan> header = new ArrayList<>();
+        List<ParagraphPlan> article = new ArrayList<>();
+        List<ParagraphPlan> footer = new ArrayList<>();
+        List<ParagraphPlan> target = header;
+        try (XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(source))) {
+            for (XWPFParagraph paragraph : document.getParagraphs()) {
+                String text = paragraph.getText() == null ? "" : paragraph.getText().trim();
+                if (text.equals(ARTICLES_START)) {
+                    if (target != header) throw new IOException("Unexpected " + ARTICLES_START + " in template");
+                    target = article;
+                } else if (text.equals(ARTICLES_END)) {
+                    if (target != article) throw new IOException("Unexpected " + ARTICLES_END + " in template");
+                    target = footer;
+                } else {
+                    target.add(compileParagraph(paragraph, target == article));
+                }
+            }
+        }
+        if (target == article) throw new IOException(ARTICLES_START + " is not closed in template");
+        return new ReportTemplate(source, header.toArray(new ParagraphPlan[0]),
+                article.toArray(new ParagraphPlan[0]), footer.toArray(new ParagraphPlan[0]));
+    }
+
+    /**
+     * Разбирает абзац шаблона: склеивает текст всех блоков, находит подстановки и распределяет
+     * части текста по блокам, в которых они начинаются.
+     *
+     * @param paragraph Абзац шаблона
+     * @param inArticle Находится ли абзац внутри блока статей
+     * @return План абзаца
+     * @throws IOException Если подстановка не закрыта, неизвестна или относится к статье вне блока статей
+     */
+    private static ParagraphPlan compileParagraph(XWPFParagraph paragraph, boolean inArticle) throws IOException {
+        List<XWPFRun> runs = paragraph.getRuns();
+        StringBuilder text = new StringBuilder();
+        int[] runEnds = new int[runs.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            String runText = runs.get(i).text();
+            if (runText != null) text.append(runText);
+            runEnds[i] = text.length();
+        }
+        List<RunPlan> plans = new ArrayList<>();
+        List<Segment> segments = new ArrayList<>();
+        int currentRun = 0;
+        int position = 0;
+        while (position < text.length()) {
+            int run = runAt(runEnds, position);
+            int open = text.indexOf(OPEN, position);
+            Segment segment;
+            int end;
+            if (open == position) {
+                int close = text.indexOf(CLOSE, open + OPEN.length());
+                if (close < 0) throw new IOException("Unclosed placeholder in template: " + text);
+                String name = text.substring(open + OPEN.length(), close).trim();
+                Field field = Field.of(name);
+                if (field.article && !inArticle) {
+                    throw new IOException("Placeholder {{" + name + "}} is only allowed inside "
+                            + ARTICLES_START + " ... " + ARTICLES_END);
+                }
+                segment = new Segment(null, field);
+                end = close + CLOSE.length();
+            } else {
+                end = Math.min(runEnds[run], open < 0 ? text.length() : open);
+                segment = new Segment(text.substring(position, end), null);
+            }
+            if (run != currentRun && !segments.isEmpty()) {
+                plans.add(new RunPlan(RunFormat.of(runs.get(currentRun)), segments.toArray(new Segment[0])));
+                segments.clear();
+            }
+            currentRun = run;
+            segments.add(segment);
+            position = end;
+        }
+        if (!segments.isEmpty()) {
+            plans.add(new RunPlan(RunFormat.of(runs.get(currentRun)), segments.toArray(new Segment[0])));
+        }
+        Borders border = paragraph.getBorderBottom();
+        return new ParagraphPlan(paragraph.getStyle(), paragraph.getAlignment(),
+                border == Borders.NONE ? null : border, paragraph.getSpacingAfter(), plans.toArray(new RunPlan[0]));
+    }
+
+    private static int runAt(int[] runEnds, int position) {
+        int run = 0;
+        while (runEnds[run] <= position) run++;
+        return run;
+    }
+
+    /**
+     * Создаёт пустой документ отчёта со стилями, полями страницы и колонтитулами шаблона.
+     * Вызывается один раз на документ, а не на автора.
+     *
+     * @return Документ без содержимого
+     * @throws IOException При ошибке чтения шаблона
+     */
+    XWPFDocument newDocument() throws IOException {
+        XWPFDocument document = new XWPFDocument(new ByteArrayInputStream(source));
+        for (int i = document.getBodyElements().size() - 1; i >= 0; i--) {
+            document.removeBodyElement(i);
+        }
+        return document;
+    }
+
+    /**
+     * Добавляет в документ абзацы шаблона для автора и его статей.
+     *
+     * @param document Документ отчёта
+     * @param author   Автор
+     * @return Последний добавленный текстовый блок или null, если шаблон не содержит текста
+     */
+    XWPFRun render(XWPFDocument document, Author author) {
+        XWPFRun last = render(document, header, author, null, null);
+        if (article.length > 0) {
+            for (ArticleWithZeroCitations item : author.getArticles()) {
+                last = render(document, article, author, item, last);
+            }
+        }
+        return render(document, footer, author, null, last);
+    }
+
+    private static XWPFRun render(XWPFDocument document, ParagraphPlan[] plans, Author author,
+                                  ArticleWithZeroCitations article, XWPFRun last) {
+        for (ParagraphPlan plan : plans) {
+            XWPFParagraph paragraph = document.createParagraph();
+            plan.apply(paragraph);
+            for (RunPlan runPlan : plan.runs) {
+                last = runPlan.apply(paragraph, author, article);
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Поле автора или статьи, доступное в подстановках.
+     */
+    private enum Field {
+        NAME("name", false, (author, article) -> author.getName()),
+        PLACE_OF_WORK("placeOfWork", false, (author, article) -> author.getPlaceOfWork()),
+        ORGANIZATION("organization", false, (author, article) -> author.getOrganization()),
+        AUTHOR_ID("authorId", false,
+                (author, article) -> author.getAuthorId() > 0 ? Long.toString(author.getAuthorId()) : ""),
+        INDEX_H("indexH", false, (author, article) -> Integer.toString(author.getIndexH())),
+        PUBLICATIONS("publications", false, (author, article) -> Integer.toString(author.getNumberOfPublications())),
+        ZERO_CITATIONS("zeroCitations", false,
+                (author, article) -> Integer.toString(author.getNumberOfZeroCitations())),
+        TITLE("title", true, (author, article) -> article.title()),
+        JOINT_AUTHORS("jointAuthors", true, (author, article) -> article.jointAuthors()),
+        PLACE_OF_PUBLICATION("placeOfPublication", true, (author, article) -> article.placeOfPublication()),
+        JOURNAL("journal", true, (author, article) -> article.venue().journal()),
+        YEAR("year", true,
+                (author, article) -> article.venue().year() > 0 ? Integer.toString(article.venue().year()) : ""),
+        CITATIONS("citations", true, (author, article) -> Integer.toString(article.citations()));
+
+        private final String placeholder;
+        private final boolean article;
+        private final BiFunction<Author, ArticleWithZeroCitations, String> value;
+
+        Field(String placeholder, boolean article, BiFunction<Author, ArticleWithZeroCitations, String> value) {
+            this.placeholder = placeholder;
+            this.article = article;
+            this.value = value;
+        }
+
+        static Field of(String placeholder) throws IOException {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) return field;
+            }
+            throw new IOException("Unknown placeholder in template: {{" + placeholder + "}}");
+        }
+
+        String value(Author author, ArticleWithZeroCitations article) {
+            String value = this.value.apply(author, article);
+            return value != null ? value : "";
+        }
+    }
+
+    /**
+     * Часть текста блока: постоянный текст или подстановка.
+     *
+     * @param literal Постоянный текст или null
+     * @param field   Поле подстановки или null
+     */
+    private record Segment(String literal, Field field) {
+        String text(Author author, ArticleWithZeroCitations article) {
+            return field == null ? literal : field.value(author, article);
+        }
+    }
+
+    /**
+     * Оформление текстового блока шаблона. Незаданные в шаблоне свойства не переносятся.
+     */
+    private record RunFormat(String fontFamily, Double fontSize, boolean bold, boolean italic, String color,
+                             UnderlinePatterns underline) {
+        static RunFormat of(XWPFRun run) {
+            UnderlinePatterns underline = run.getUnderline();
+            return new RunFormat(run.getFontFamily(), run.getFontSizeAsDouble(), run.isBold(), run.isItalic(),
+                    run.getColor(), underline == UnderlinePatterns.NONE ? null : underline);
+        }
+
+        void apply(XWPFRun run) {
+            if (fontFamily != null) run.setFontFamily(fontFamily);
+            if (fontSize != null) run.setFontSize(fontSize);
+            if (bold) run.setBold(true);
+            if (italic) run.setItalic(true);
+            if (color != null) run.setColor(color);
+            if (underline != null) run.setUnderline(underline);
+        }
+    }
+
+    /**
+     * План текстового блока: оформление и части текста.
+     */
+    private record RunPlan(RunFormat format, Segment[] segments) {
+        /**
+         * Создаёт блок в абзаце. Переводы строки в тексте становятся разрывами строки.
+         */
+        XWPFRun apply(XWPFParagraph paragraph, Author author, ArticleWithZeroCitations article) {
+            XWPFRun run = paragraph.createRun();
+            format.apply(run);
+            String text;
+            if (segments.length == 1) {
+                text = segments[0].text(author, article);
+            } else {
+                StringBuilder builder = new StringBuilder();
+                for (Segment segment : segments) {
+                    builder.append(segment.text(author, article));
+                }
+                text = builder.toString();
+            }
+            int start = 0;
+            int newLine;
+            while ((newLine = text.indexOf('\n', start)) >= 0) {
+                run.setText(text.substring(start, newLine));
+                run.addBreak();
+                start = newLine + 1;
+            }
+            run.setText(start == 0 ? text : text.substring(start));
+            return run;
+        }
+    }
+
+    /**
+     * План абзаца: оформление и текстовые блоки.
+     */
+    private record ParagraphPlan(String style, ParagraphAlignment alignment, Borders borderBottom, int spacingAfter,
+                                 RunPlan[] runs) {
+        void apply(XWPFParagraph paragraph) {
+            if (style != null) paragraph.setStyle(style);
+            if (alignment != null) paragraph.setAlignment(alignment);
+            if (borderBottom != null) paragraph.setBorderBottom(borderBottom);
+            if (spacingAfter >= 0) paragraph.setSpacingAfter(spacingAfter);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Разбиение текста на термы для {@link ArticleSearchIndex}.
+ * <p>
+ * Текст приводится к нижнему регистру, Ё заменяется на Е, словами считаются последовательности букв и цифр.
+ * Служебные слова отбрасываются. К русским словам применяется лёгкий стемминг: отсекается самое длинное
+ * подходящее окончание из списка падежных и родовых окончаний, если после этого остаётся не меньше
+ * {@link #MIN_STEM} букв. Так "нейронные сети", "нейронных сетей" и "нейронной сетью" дают одни и те же термы.
+ * У английских слов отсекается окончание множественного числа.
+ */
+final class SearchTokenizer {
+    /**
+     * Минимальная длина основы после отсечения окончания
+     */
+    static final int MIN_STEM = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of("и", "в", "во", "на", "с", "со", "по", "для", "из",
+            "к", "о", "об", "от", "до", "при", "а", "но", "или", "не", "за", "под", "над", "как", "что",
+            "a", "an", "the", "of", "in", "on", "for", "and", "or", "to", "with", "by", "at", "from");
+    /**
+     * Окончания, упорядоченные по убыванию длины
+     */
+    private static final String[] ENDINGS = {
+            "иями", "ями", "ами", "ыми", "ими", "ого", "его", "ому", "ему", "ией",
+            "ая", "яя", "ое", "ее", "ые", "ие", "ый", "ий", "ой", "ей", "ую", "юю", "ых", "их", "ым", "им",
+            "ом", "ем", "ах", "ях", "ов", "ев", "ам", "ям", "ия", "ию", "ии", "ья", "ью", "ье",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"};
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Разбивает текст на термы в порядке следования. Повторы не удаляются.
+     *
+     * @param text Текст, может быть null
+     * @return Термы
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) return terms;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                c = Character.toLowerCase(c);
+                word.append(c == 'ё' ? 'е' : c);
+            } else if (word.length() > 0) {
+                String token = word.toString();
+                word.setLength(0);
+                if (!STOP_WORDS.contains(token)) terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Отсекает окончание слова.
+     *
+     * @param word Слово в нижнем регистре
+     * @return Основа слова
+     */
+    static String stem(String word) {
+        if (isCyrillic(word.charAt(0))) {
+            for (String ending : ENDINGS) {
+                if (word.endsWith(ending) && word.length() - ending.length() >= MIN_STEM) {
+                    return word.substring(0, word.length() - ending.length());
+                }
+            }
+            return word;
+        }
+        if (word.length() > MIN_STEM + 1 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.endsWith("ies") ? word.substring(0, word.length() - 3) + 'y'
+                    : word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static boolean isCyrillic(char c) {
+        return c >= 'а' && c <= 'я';
+    }
+}
@@ -0,0 +1,256 @@
+package com.elibrary.elibrary;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Хранилище авторов с ограниченным расходом кучи.
+ * <p>
+ * Пока примерный объём авторов в куче не превышает бюджет, авторы хранятся как объекты.
+ * После превышения бюджета каждый следующий автор сериализуется (в формате {@link AuthorSnapshot})
+ * во временный файл, отображённый в память сегментами {@link MappedByteBuffer}, и в куче не остаётся.
+ * Обход ({@link #iterator()}) ленивый: сериализованные авторы восстанавливаются по одному,
+ * поэтому запись отчёта не материализует весь набор авторов. Сам документ отчёта строится в памяти
+ * ({@link ReportDocument}) и растёт с количеством статей, этот объём бюджетом не ограничивается.
+ * <p>
+ * Порядок обхода совпадает с порядком добавления. Добавление не потокобезопасно;
+ * временный файл удаляется при {@link #close()}.
+ */
+public class SpillingAuthorStore implements Iterable<Author>, Closeable {
+    private static final Logger LOGGER = LogManager.getLogger(SpillingAuthorStore.class);
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final long heapBudgetBytes;
+    private final Path spillDirectory;
+    private final List<Author> heapAuthors = new ArrayList<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream recordOutput = new DataOutputStream(recordBuffer);
+    private FileChannel spillFile;
+    private long spillFileSize;
+    private long heapBytes;
+    private int spilledCount;
+    private boolean closed;
+
+    /**
+     * Создаёт хранилище с временными файлами в системной временной директории.
+     *
+     * @param heapBudgetBytes Примерный объём кучи, после которого авторы выгружаются в файл
+     */
+    public SpillingAuthorStore(long heapBudgetBytes) {
+        this(heapBudgetBytes, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Создаёт хранилище с временными файлами в заданной директории.
+     *
+     * @param heapBudgetBytes Примерный объём кучи, после которого авторы выгружаются в файл
+     * @param spillDirectory  Директория для временного файла
+     */
+    public SpillingAuthorStore(long heapBudgetBytes, Path spillDirectory) {
+        if (heapBudgetBytes < 0) {
+            throw new IllegalArgumentException("Heap budget must not be negative: " + heapBudgetBytes);
+        }
+        this.heapBudgetBytes = heapBudgetBytes;
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Добавляет автора в конец хранилища.
+     *
+     * @param author Автор
+     * @throws IOException Если не удалось записать автора во временный файл
+     */
+    public void add(Author author) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The store is closed");
+        }
+        long estimate = estimateHeapBytes(author);
+        if (spilledCount == 0 && heapBytes + estimate <= heapBudgetBytes) {
+            heapAuthors.add(author);
+            heapBytes += estimate;
+            return;
+        }
+        spill(author);
+    }
+
+    /**
+     * Возвращает количество авторов.
+     *
+     * @return Количество авторов в куче и в файле
+     */
+    public int size() {
+        return heapAuthors.size() + spilledCount;
+    }
+
+    /**
+     * Возвращает количество авторов, выгруженных из кучи.
+     *
+     * @return Количество авторов во временном файле
+     */
+    public int getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Возвращает ленивый обход авторов в порядке добавления.
+     * Выгруженные авторы восстанавливаются при обращении и не сохраняются хранилищем.
+     *
+     * @return Обход авторов
+     */
+    @Override
+    public Iterator<Author> iterator() {
+        if (closed) {
+            throw new IllegalStateException("The store is closed");
+        }
+        return new Iterator<>() {
+            private final Iterator<Author> heap = heapAuthors.iterator();
+            private final int total = spilledCount;
+            private int read;
+            private int segment;
+            private ByteBuffer current;
+
+            @Override
+            public boolean hasNext() {
+                return heap.hasNext() || read < total;
+            }
+
+            @Override
+            public Author next() {
+                if (heap.hasNext()) return heap.next();
+                if (read >= total) throw new NoSuchElementException();
+                while (current == null || !current.hasRemaining()) {
+                    current = segments.get(segment++).duplicate().flip();
+                }
+                int length = current.getInt();
+                ByteBuffer record = current.slice().limit(length);
+                current.position(current.position() + length);
+                read++;
+                try {
+                    return AuthorSnapshot.readAuthor(new DataInputStream(new ByteBufferInputStream(record)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Освобождает авторов в куче и удаляет временный файл.
+     *
+     * @throws IOException Если не удалось закрыть файл
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        heapAuthors.clear();
+        segments.clear();
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+    }
+
+    /**
+     * Сериализует автора и дописывает его в текущий сегмент, при необходимости отображая новый.
+     *
+     * @param author Автор
+     * @throws IOException Если не удалось записать автора
+     */
+    private void spill(Author author) throws IOException {
+        recordBuffer.reset();
+        AuthorSnapshot.writeAuthor(recordOutput, author);
+        recordOutput.flush();
+        int length = recordBuffer.size();
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.remaining() < Integer.BYTES + length) {
+            segment = mapSegment(Math.max(SEGMENT_SIZE, Integer.BYTES + length));
+        }
+        segment.putInt(length);
+        segment.put(recordBuffer.toByteArray(), 0, length);
+        spilledCount++;
+    }
+
+    /**
+     * Отображает в память новый сегмент временного файла.
+     * Сегмент готов к записи; при обходе записанная часть определяется его позицией.
+     *
+     * @param size Размер сегмента
+     * @return Новый сегмент
+     * @throws IOException Если не удалось создать или расширить файл
+     */
+    private MappedByteBuffer mapSegment(int size) throws IOException {
+        if (spillFile == null) {
+            Path file = Files.createTempFile(spillDirectory, "elibrary-authors", ".bin");
+            spillFile = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            LOGGER.info("Heap budget exceeded, spilling authors to " + file);
+        }
+        MappedByteBuffer segment = spillFile.map(FileChannel.MapMode.READ_WRITE, spillFileSize, size);
+        spillFileSize += size;
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Грубо оценивает объём кучи, занимаемый автором: строки, список цитирований и статьи.
+     *
+     * @param author Автор
+     * @return Примерный объём в байтах
+     */
+    private static long estimateHeapBytes(Author author) {
+        long bytes = 128 + stringBytes(author.getName()) + stringBytes(author.getPlaceOfWork())
+                + author.getCitations().size() * 48L;
+        for (ArticleWithZeroCitations article : author.getArticles()) {
+            bytes += 160 + stringBytes(article.title()) + stringBytes(article.jointAuthors())
+                    + 2 * stringBytes(article.placeOfPublication());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 48 + 2L * value.length();
+    }
+
+    /**
+     * Поток чтения из буфера без копирования.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.elibrary.elibrary;
+
+/**
+ * Стабильные 64-битные ключи авторов и статей ({@link Author#getKey()}, {@link ArticleWithZeroCitations#key()}).
+ * <p>
+ * Ключ - хеш FNV-1a от нормализованной строки, поэтому он не зависит от запуска, JVM и порядка файлов
+ * и пригоден для хранения в снимках и кешах. Нормализация убирает различия в регистре, букве Ё, знаках
+ * препинания и пробелах.
+ */
+final class StableKeys {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * Разделитель частей ключа, не встречающийся в нормализованных строках
+     */
+    private static final char SEPARATOR = '\u0000';
+
+    private StableKeys() {
+    }
+
+    /**
+     * Ключ автора по идентификатору elibrary.ru.
+     *
+     * @param authorId Идентификатор автора (authorid)
+     * @return Ключ автора
+     */
+    static long ofAuthorId(long authorId) {
+        return hash("authorid" + SEPARATOR + authorId);
+    }
+
+    /**
+     * Ключ по нескольким частям, каждая из которых нормализуется.
+     *
+     * @param parts Части ключа, могут быть null
+     * @return Ключ
+     */
+    static long of(String... parts) {
+        StringBuilder key = new StringBuilder();
+        for (String part : parts) {
+            key.append(normalize(part)).append(SEPARATOR);
+        }
+        return hash(key.toString());
+    }
+
+    /**
+     * Хеш FNV-1a 64 от символов строки (по два байта на символ).
+     *
+     * @param value Строка
+     * @return Хеш
+     */
+    static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Приводит строку к верхнему регистру, заменяет Ё на Е и схлопывает знаки препинания и пробелы.
+     *
+     * @param value Строка, может быть null
+     * @return Нормализованная строка
+     */
+    static String normalize(String value) {
+        if (value == null) return "";
+        StringBuilder normalized = new StringBuilder(value.length());
+        boolean separator = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toUpperCase(value.charAt(i));
+            if (c == 'Ё') c = 'Е';
+            if (Character.isLetterOrDigit(c)) {
+                if (separator && normalized.length() > 0) normalized.append(' ');
+                normalized.append(c);
+                separator = false;
+            } else {
+                separator = true;
+            }
+        }
+        return normalized.toString();
+    }
+}
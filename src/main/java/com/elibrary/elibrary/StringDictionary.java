@@ -0,0 +1,61 @@
+package com.elibrary.elibrary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Словарь строк для словарного кодирования столбцов {@link ArticleColumnStore}.
+ * Каждой различной строке присваивается код - её порядковый номер в словаре.
+ */
+class StringDictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Возвращает код строки, добавляя её в словарь при первом появлении.
+     *
+     * @param value Строка
+     * @return Код строки
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Возвращает код строки без добавления её в словарь.
+     *
+     * @param value Строка
+     * @return Код строки или -1, если строки нет в словаре
+     */
+    int lookup(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Возвращает строку по коду.
+     *
+     * @param code Код строки
+     * @return Строка
+     */
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Возвращает количество различных строк в словаре.
+     *
+     * @return Количество строк
+     */
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.elibrary.elibrary;
+
+/**
+ * Гистограмма публикаций по годам для одного автора или подразделения.
+ * Строится {@link YearHistogramAggregator} и хранит значения в массивах int,
+ * индекс в которых - смещение года от {@link #getFirstYear()}.
+ */
+public class YearHistogram {
+    private final int firstYear;
+    private final int[] publications;
+    private final int[] zeroCitations;
+    private final int[] citations;
+    private final int[] indexH;
+    private final int publicationsWithoutYear;
+
+    /**
+     * Создаёт гистограмму из заполненных массивов, массивы не копируются.
+     *
+     * @param firstYear               Первый год гистограммы
+     * @param publications            Количество публикаций по годам
+     * @param zeroCitations           Количество публикаций с нулевым цитированием по годам
+     * @param citations               Сумма цитирований публикаций по годам
+     * @param indexH                  Индекс Хирша по публикациям до года включительно
+     * @param publicationsWithoutYear Количество публикаций без распознанного года
+     */
+    YearHistogram(int firstYear, int[] publications, int[] zeroCitations, int[] citations, int[] indexH,
+                  int publicationsWithoutYear) {
+        this.firstYear = firstYear;
+        this.publications = publications;
+        this.zeroCitations = zeroCitations;
+        this.citations = citations;
+        this.indexH = indexH;
+        this.publicationsWithoutYear = publicationsWithoutYear;
+    }
+
+    /**
+     * Возвращает первый год гистограммы.
+     *
+     * @return Первый год
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * Возвращает последний год гистограммы.
+     *
+     * @return Последний год
+     */
+    public int getLastYear() {
+        return firstYear + publications.length - 1;
+    }
+
+    /**
+     * Возвращает количество публикаций за год.
+     *
+     * @param year Год
+     * @return Количество публикаций, 0 для года вне гистограммы
+     */
+    public int getPublications(int year) {
+        return valueAt(publications, year);
+    }
+
+    /**
+     * Возвращает количество публикаций с нулевым цитированием за год.
+     *
+     * @param year Год
+     * @return Количество публикаций с нулевым цитированием, 0 для года вне гистограммы
+     */
+    public int getZeroCitations(int year) {
+        return valueAt(zeroCitations, year);
+    }
+
+    /**
+     * Возвращает сумму цитирований публикаций за год.
+     *
+     * @param year Год
+     * @return Сумма цитирований, 0 для года вне гистограммы
+     */
+    public int getCitations(int year) {
+        return valueAt(citations, year);
+    }
+
+    /**
+     * Возвращает долю публикаций с нулевым цитированием за год.
+     *
+     * @param year Год
+     * @return Доля от 0 до 1, 0 если публикаций за год нет
+     */
+    public double getZeroCitationRate(int year) {
+        int total = getPublications(year);
+        return total == 0 ? 0 : (double) getZeroCitations(year) / total;
+    }
+
+    /**
+     * Возвращает индекс Хирша, посчитанный по публикациям до года включительно.
+     *
+     * @param year Год
+     * @return Индекс Хирша
+     */
+    public int getIndexH(int year) {
+        if (indexH.length == 0 || year < firstYear) return 0;
+        return indexH[Math.min(year - firstYear, indexH.length - 1)];
+    }
+
+    /**
+     * Возвращает количество публикаций, год которых не удалось распознать.
+     *
+     * @return Количество публикаций без года
+     */
+    public int getPublicationsWithoutYear() {
+        return publicationsWithoutYear;
+    }
+
+    /**
+     * Возвращает значение массива для года.
+     *
+     * @param values Массив значений
+     * @param year   Год
+     * @return Значение или 0 для года вне гистограммы
+     */
+    private int valueAt(int[] values, int year) {
+        int index = year - firstYear;
+        return index < 0 || index >= values.length ? 0 : values[index];
+    }
+}
@@ -0,0 +1,121 @@
+package com.elibrary.elibrary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Класс YearHistogramAggregator строит гистограммы {@link YearHistogram} по годам
+ * из столбцов {@link ArticleColumnStore}: для каждого автора и для каждого места работы.
+ * Год публикации берётся из уже разобранного столбца, строки мест публикации повторно не разбираются.
+ */
+public class YearHistogramAggregator {
+
+    /**
+     * Строит гистограммы для каждого автора хранилища.
+     *
+     * @param store Хранилище статей
+     * @return Гистограммы, индекс в массиве - порядковый номер автора
+     */
+    public YearHistogram[] byAuthor(ArticleColumnStore store) {
+        int[] rows = store.selectAll();
+        int[] groups = store.authorOrdinals(rows);
+        return aggregate(store, rows, groups, store.authorCount());
+    }
+
+    /**
+     * Строит гистограммы для каждой организации авторов хранилища.
+     * Места работы, приведённые {@link AffiliationNormalizer} к одной организации, попадают в одну гистограмму.
+     *
+     * @param store Хранилище статей
+     * @return Гистограммы по организациям в порядке первого появления
+     */
+    public Map<String, YearHistogram> byDepartment(ArticleColumnStore store) {
+        StringDictionary departments = new StringDictionary();
+        int[] departmentOfAuthor = new int[store.authorCount()];
+        for (int i = 0; i < departmentOfAuthor.length; i++) {
+            departmentOfAuthor[i] = departments.encode(String.valueOf(store.authorOrganization(i)));
+        }
+        int[] rows = store.selectAll();
+        int[] groups = store.authorOrdinals(rows);
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = departmentOfAuthor[groups[i]];
+        }
+        YearHistogram[] histograms = aggregate(store, rows, groups, departments.size());
+        Map<String, YearHistogram> result = new LinkedHashMap<>();
+        for (int i = 0; i < histograms.length; i++) {
+            result.put(departments.decode(i), histograms[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Строит гистограммы для групп строк.
+     * Строки раскладываются по (группа, год) сортировкой подсчётом, после чего для каждой группы
+     * за один проход по годам считаются публикации, цитирования и нарастающий индекс Хирша.
+     *
+     * @param store      Хранилище статей
+     * @param rows       Вектор строк
+     * @param groups     Номер группы для каждой строки вектора
+     * @param groupCount Количество групп
+     * @return Гистограммы, индекс в массиве - номер группы
+     */
+    private YearHistogram[] aggregate(ArticleColumnStore store, int[] rows, int[] groups, int groupCount) {
+        int[] years = store.years(rows);
+        int[] citations = store.citations(rows);
+        int minYear = Integer.MAX_VALUE;
+        int maxYear = Integer.MIN_VALUE;
+        for (int year : years) {
+            if (year == 0) continue;
+            minYear = Math.min(minYear, year);
+            maxYear = Math.max(maxYear, year);
+        }
+        int yearCount = minYear > maxYear ? 0 : maxYear - minYear + 1;
+
+        int[] withoutYear = new int[groupCount];
+        int[] bucketStart = new int[groupCount * yearCount + 1];
+        for (int i = 0; i < rows.length; i++) {
+            if (years[i] == 0) withoutYear[groups[i]]++;
+            else bucketStart[groups[i] * yearCount + years[i] - minYear + 1]++;
+        }
+        for (int i = 1; i < bucketStart.length; i++) {
+            bucketStart[i] += bucketStart[i - 1];
+        }
+        int[] ordered = new int[bucketStart[bucketStart.length - 1]];
+        int[] fill = bucketStart.clone();
+        for (int i = 0; i < rows.length; i++) {
+            if (years[i] != 0) ordered[fill[groups[i] * yearCount + years[i] - minYear]++] = i;
+        }
+
+        YearHistogram[] result = new YearHistogram[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            int groupStart = bucketStart[group * yearCount];
+            int groupEnd = bucketStart[(group + 1) * yearCount];
+            int[] publications = new int[yearCount];
+            int[] zeroCitations = new int[yearCount];
+            int[] citationSums = new int[yearCount];
+            int[] indexH = new int[yearCount];
+            int[] citationCounts = new int[groupEnd - groupStart + 1];
+            int h = 0;
+            int atLeastNextH = 0;
+            for (int year = 0; year < yearCount; year++) {
+                int bucket = group * yearCount + year;
+                for (int k = bucketStart[bucket]; k < bucketStart[bucket + 1]; k++) {
+                    int citation = citations[ordered[k]];
+                    publications[year]++;
+                    citationSums[year] += citation;
+                    if (citation == 0) zeroCitations[year]++;
+                    citationCounts[Math.min(citation, citationCounts.length - 1)]++;
+                    if (citation > h) atLeastNextH++;
+                }
+                while (atLeastNextH > h) {
+                    h++;
+                    atLeastNextH -= citationCounts[h];
+                }
+                indexH[year] = h;
+            }
+            result[group] = new YearHistogram(yearCount == 0 ? 0 : minYear, publications, zeroCitations,
+                    citationSums, indexH, withoutYear[group]);
+        }
+        return result;
+    }
+}
@@ -12,6 +12,9 @@ module com.elibrary.elibrary {
 
     requires org.jsoup;
 
+    requires jdk.httpserver;
+    requires jdk.zipfs;
+
     requires org.controlsfx.controls;
 
     exports com.elibrary.elibrary to javafx.graphics;
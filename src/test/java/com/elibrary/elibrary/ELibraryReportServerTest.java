@@ -0,0 +1,194 @@
+package com.elibrary.elibrary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверки {@link ELibraryReportServer} на локальном адресе: сервер запускается на свободном порту,
+ * запросы отправляются страницами из {@code Examples/InputFiles}.
+ */
+class ELibraryReportServerTest {
+    private static final Path EXAMPLES = Path.of("Examples", "InputFiles");
+
+    private ELibraryReportServer server;
+
+    /**
+     * Ответ сервера.
+     *
+     * @param status        Код ответа
+     * @param contentLength Значение заголовка Content-Length
+     * @param body          Тело ответа
+     */
+    private record Response(int status, long contentLength, byte[] body) {
+        String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new ELibraryReportServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void singlePageReturnsReportWithExactLength() throws IOException {
+        Response response = post(server, "/report?format=json", null, page("AuthorTest_4"));
+
+        assertEquals(200, response.status());
+        assertEquals(response.body().length, response.contentLength());
+        assertTrue(response.text().contains("Кожевников"), response.text());
+    }
+
+    @Test
+    void singlePageReturnsDocx() throws IOException {
+        Response response = post(server, "/report", null, page("AuthorTest_3"));
+
+        assertEquals(200, response.status());
+        assertEquals(response.body().length, response.contentLength());
+        assertEquals('P', response.body()[0]);
+        assertEquals('K', response.body()[1]);
+    }
+
+    @Test
+    void multipartBatchReturnsEveryAuthor() throws IOException {
+        String boundary = "----elibrary-test";
+        byte[] body = multipart(boundary, page("AuthorTest_2"), page("AuthorTest_3"), page("AuthorTest_4"));
+
+        Response response = post(server, "/report?format=json",
+                "multipart/form-data; boundary=\"" + boundary + "\"", body);
+
+        assertEquals(200, response.status(), response.text());
+        String json = response.text();
+        assertTrue(json.contains("Красов"), json);
+        assertTrue(json.contains("Краснянский"), json);
+        assertTrue(json.contains("Кожевников"), json);
+    }
+
+    @Test
+    void pageThatIsNotPublicationListReturns422() throws IOException {
+        Response response = post(server, "/report?format=json", null,
+                "<html><body>Hello</body></html>".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(422, response.status());
+        assertTrue(response.text().contains("upload-0"), response.text());
+    }
+
+    @Test
+    void batchWithOneBadPageReturns422() throws IOException {
+        String boundary = "b";
+        byte[] body = multipart(boundary, page("AuthorTest_2"), "not a page".getBytes(StandardCharsets.UTF_8));
+
+        Response response = post(server, "/report?format=json", "Multipart/Form-Data; boundary=" + boundary, body);
+
+        assertEquals(422, response.status());
+        assertTrue(response.text().contains("upload-1"), response.text());
+    }
+
+    @Test
+    void overloadedServerReturns503() throws IOException {
+        try (ELibraryReportServer overloaded = new ELibraryReportServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, 0)) {
+            overloaded.start();
+
+            Response response = post(overloaded, "/report?format=json", null, page("AuthorTest_2"));
+
+            assertEquals(503, response.status());
+        }
+    }
+
+    @Test
+    void invalidParametersReturn400() throws IOException {
+        assertEquals(400, post(server, "/report?format=pdf", null, page("AuthorTest_2")).status());
+        assertEquals(400, post(server, "/report?articles=min:x", null, page("AuthorTest_2")).status());
+        assertEquals(400, post(server, "/report?ranking=index_h", null, page("AuthorTest_2")).status());
+        assertEquals(400, post(server, "/report", "multipart/form-data", page("AuthorTest_2")).status());
+        assertEquals(400, post(server, "/report", null, new byte[0]).status());
+    }
+
+    @Test
+    void splitMultipartStripsHeadersAndSkipsEmptyParts() {
+        byte[] body = ("preamble\r\n"
+                + "--xyz\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\nfirst\r\n"
+                + "--xyz\r\nContent-Disposition: form-data; name=\"b\"\r\n\r\n\r\n"
+                + "--xyz\r\nContent-Type: text/html\r\n\r\nsecond\r\nline\r\n"
+                + "--xyz--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+
+        List<byte[]> parts = ELibraryReportServer.splitMultipart(body, "xyz");
+
+        assertEquals(2, parts.size());
+        assertArrayEquals("first".getBytes(StandardCharsets.ISO_8859_1), parts.get(0));
+        assertArrayEquals("second\r\nline".getBytes(StandardCharsets.ISO_8859_1), parts.get(1));
+    }
+
+    @Test
+    void splitMultipartRejectsMalformedBodies() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ELibraryReportServer.splitMultipart("no delimiter".getBytes(StandardCharsets.ISO_8859_1), "xyz"));
+        assertThrows(IllegalArgumentException.class, () -> ELibraryReportServer.splitMultipart(
+                "--xyz\r\nName: a\r\n\r\nunterminated".getBytes(StandardCharsets.ISO_8859_1), "xyz"));
+        assertThrows(IllegalArgumentException.class, () -> ELibraryReportServer.splitMultipart(
+                "--xyz\r\nno header end\r\n--xyz--".getBytes(StandardCharsets.ISO_8859_1), "xyz"));
+    }
+
+    private static byte[] page(String name) throws IOException {
+        return Files.readAllBytes(EXAMPLES.resolve(name));
+    }
+
+    private static byte[] multipart(String boundary, byte[]... pages) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < pages.length; i++) {
+            out.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"page" + i
+                    + ".html\"\r\nContent-Type: text/html\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            out.write(pages[i]);
+            out.write("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        out.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        return out.toByteArray();
+    }
+
+    private static Response post(ELibraryReportServer server, String path, String contentType, byte[] body)
+            throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            if (contentType != null) connection.setRequestProperty("Content-Type", contentType);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            byte[] bytes = in == null ? new byte[0] : in.readAllBytes();
+            return new Response(status, connection.getContentLengthLong(), bytes);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}